@@ -0,0 +1,77 @@
+package org.example.bench;
+
+import org.example.NFAToDFAConverter;
+import org.example.core.Automaton;
+import org.example.core.AutomatonGenerator;
+import org.example.core.CompiledDfa;
+import org.example.core.CompiledNfa;
+import org.example.core.DfaMinimizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Cost of building the compiled forms, subset construction and minimization
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConstructionBenchmark {
+    // n for the "n-th symbol from the end" NEA, its DEA has 2^n states
+    @Param({"8", "14"})
+    public int nthFromEnd;
+
+    // Size of the random DEA that is compiled and minimized
+    @Param({"1000", "20000"})
+    public int states;
+
+    // Size of the random NEA that is compiled and converted
+    @Param({"20", "50"})
+    public int nfaStates;
+
+    @Param({"2", "26"})
+    public int alphabetSize;
+
+    private Automaton worstCaseNfa;
+    private Automaton randomNfa;
+    private Automaton randomDfa;
+    private NFAToDFAConverter converter;
+    private DfaMinimizer minimizer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        worstCaseNfa = AutomatonGenerator.nthSymbolFromEnd(nthFromEnd);
+        randomNfa = new AutomatonGenerator(42).randomNfa(nfaStates, alphabetSize, alphabetSize, 0.25);
+        randomDfa = new AutomatonGenerator(42).randomDfa(states, alphabetSize, 1.0, 0.25);
+        converter = new NFAToDFAConverter();
+        converter.setSubsetNames(false);
+        converter.setMaxStates(100_000);
+        minimizer = new DfaMinimizer();
+    }
+
+    @Benchmark
+    public CompiledDfa compileDfa() {
+        return CompiledDfa.compile(randomDfa);
+    }
+
+    @Benchmark
+    public CompiledNfa compileNfa() {
+        return CompiledNfa.compile(randomNfa);
+    }
+
+    @Benchmark
+    public NFAToDFAConverter.Result convertWorstCase() {
+        return converter.convert(worstCaseNfa);
+    }
+
+    @Benchmark
+    public NFAToDFAConverter.Result convertRandom() {
+        return converter.convert(randomNfa);
+    }
+
+    @Benchmark
+    public Automaton minimize() {
+        return minimizer.minimize(randomDfa);
+    }
+}
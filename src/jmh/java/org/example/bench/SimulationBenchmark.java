@@ -0,0 +1,80 @@
+package org.example.bench;
+
+import org.example.core.Automaton;
+import org.example.core.AutomatonGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Steady-state simulation throughput; compiled snapshots are built during warmup.
+// Run with -prof gc to see the allocation rate per operation.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulationBenchmark {
+    @Param({"16", "256"})
+    public int states;
+
+    @Param({"2", "26"})
+    public int alphabetSize;
+
+    // Fraction of (state, symbol) pairs of the DEA that have transitions
+    @Param({"0.3", "1.0"})
+    public double density;
+
+    // Transitions per NEA state; divided by the alphabet size this is the branching factor
+    @Param({"4", "32"})
+    public int nfaOutDegree;
+
+    @Param({"1000", "100000"})
+    public int inputLength;
+
+    private Automaton dfa;
+    private Automaton lazyNfa;
+    private Automaton bitsetNfa;
+    private String dfaInput;
+    private String nfaInput;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dfa = new AutomatonGenerator(42).randomDfa(states, alphabetSize, density, 0.25);
+        lazyNfa = new AutomatonGenerator(42).randomNfa(states, alphabetSize, nfaOutDegree, 0.25);
+        lazyNfa.setNfaSimulation(Automaton.NfaSimulation.LAZY_DFA);
+        bitsetNfa = new AutomatonGenerator(42).randomNfa(states, alphabetSize, nfaOutDegree, 0.25);
+        bitsetNfa.setNfaSimulation(Automaton.NfaSimulation.BITSET);
+
+        // Inputs follow a random path, so they are not rejected after the first few characters
+        AutomatonGenerator inputs = new AutomatonGenerator(7);
+        dfaInput = inputs.randomWalk(dfa, inputLength);
+        nfaInput = inputs.randomWalk(lazyNfa, inputLength);
+    }
+
+    @Benchmark
+    public boolean simulateDfa() {
+        return dfa.simulate(dfaInput);
+    }
+
+    @Benchmark
+    public boolean simulateNfaLazyDfa() {
+        return lazyNfa.simulate(nfaInput);
+    }
+
+    @Benchmark
+    public boolean simulateNfaBitset() {
+        return bitsetNfa.simulate(nfaInput);
+    }
+
+    @Benchmark
+    public List<org.example.core.State> simulateStepsDfa() {
+        return dfa.simulateSteps(dfaInput);
+    }
+
+    @Benchmark
+    public List<org.example.core.State> simulateStepsNfa() {
+        return bitsetNfa.simulateSteps(nfaInput);
+    }
+}
@@ -1,4 +1,212 @@
 package org.example;
 
+import org.example.core.Alphabet;
+import org.example.core.Automaton;
+import org.example.core.State;
+import org.example.core.Transition;
+
+import java.util.*;
+
+// Checks an automaton before a run in O(states + transitions) over its adjacency index
+// (plus O(states * symbols) to list missing transitions).
 public class AutomatonValidator {
+
+    public Report validate(Automaton automaton) {
+        Report report = new Report();
+        Alphabet alphabet = automaton.getAlphabet();
+        int symbolCount = alphabet.size();
+        report.missingInitialState = automaton.getInitialState() == null;
+
+        // Determinism and completeness, one pass over the outgoing transitions of every state
+        State[] targetBySymbol = new State[symbolCount];
+        boolean[] conflict = new boolean[symbolCount];
+        int[] touched = new int[symbolCount];
+        for (State state : automaton.getStates()) {
+            int touchedCount = 0;
+            for (Transition t : automaton.getTransitionsFrom(state)) {
+                if (t.isEpsilon()) {
+                    report.epsilonTransitions.add(t);
+                }
+                for (int symbol : t.getSymbolIds()) {
+                    if (targetBySymbol[symbol] == null) {
+                        targetBySymbol[symbol] = t.getToState();
+                        touched[touchedCount++] = symbol;
+                    } else if (!targetBySymbol[symbol].equals(t.getToState())) {
+                        conflict[symbol] = true;
+                    }
+                }
+            }
+
+            for (int i = 0; i < touchedCount; i++) {
+                int symbol = touched[i];
+                if (conflict[symbol]) {
+                    report.determinismViolations.add(new DeterminismViolation(
+                            state, alphabet.getSymbol(symbol), targetsOf(automaton, state, alphabet.getSymbol(symbol))));
+                }
+            }
+            // Only symbols that are still on some transition; the alphabet keeps the others
+            if (touchedCount < alphabet.getUsedCount()) {
+                for (int symbol = 0; symbol < symbolCount; symbol++) {
+                    if (targetBySymbol[symbol] == null && alphabet.isUsed(symbol)) {
+                        report.missingTransitions.add(new MissingTransition(state, alphabet.getSymbol(symbol)));
+                    }
+                }
+            }
+
+            for (int i = 0; i < touchedCount; i++) {
+                targetBySymbol[touched[i]] = null;
+                conflict[touched[i]] = false;
+            }
+        }
+
+        // Reachable: forward search from the initial state
+        Set<State> reachable = new HashSet<>();
+        if (automaton.getInitialState() != null) {
+            search(automaton.getInitialState(), reachable, true, automaton);
+        }
+
+        // Co-accessible: backward search from all final states
+        Set<State> coaccessible = new HashSet<>();
+        for (State state : automaton.getStates()) {
+            if (state.isFinal() && !coaccessible.contains(state)) {
+                search(state, coaccessible, false, automaton);
+            }
+        }
+
+        for (State state : automaton.getStates()) {
+            if (!reachable.contains(state)) {
+                report.unreachableStates.add(state);
+            }
+            if (!coaccessible.contains(state)) {
+                report.deadStates.add(state);
+            }
+        }
+
+        return report;
+    }
+
+    private void search(State start, Set<State> visited, boolean forward, Automaton automaton) {
+        Deque<State> stack = new ArrayDeque<>();
+        visited.add(start);
+        stack.push(start);
+        while (!stack.isEmpty()) {
+            State state = stack.pop();
+            List<Transition> edges = forward ? automaton.getTransitionsFrom(state) : automaton.getTransitionsTo(state);
+            for (Transition t : edges) {
+                State next = forward ? t.getToState() : t.getFromState();
+                if (visited.add(next)) {
+                    stack.push(next);
+                }
+            }
+        }
+    }
+
+    private List<State> targetsOf(Automaton automaton, State state, String symbol) {
+        Set<State> targets = new LinkedHashSet<>();
+        for (Transition t : automaton.getAllTransitions(state, symbol)) {
+            targets.add(t.getToState());
+        }
+        return new ArrayList<>(targets);
+    }
+
+    public static class Report {
+        private boolean missingInitialState;
+        private final List<DeterminismViolation> determinismViolations = new ArrayList<>();
+        private final List<MissingTransition> missingTransitions = new ArrayList<>();
+        private final List<Transition> epsilonTransitions = new ArrayList<>();
+        private final List<State> unreachableStates = new ArrayList<>();
+        private final List<State> deadStates = new ArrayList<>();
+
+        public boolean isMissingInitialState() {
+            return missingInitialState;
+        }
+
+        // A state with several different targets for the same symbol
+        public List<DeterminismViolation> getDeterminismViolations() {
+            return determinismViolations;
+        }
+
+        public List<MissingTransition> getMissingTransitions() {
+            return missingTransitions;
+        }
+
+        // Not allowed in a DEA
+        public List<Transition> getEpsilonTransitions() {
+            return epsilonTransitions;
+        }
+
+        public List<State> getUnreachableStates() {
+            return unreachableStates;
+        }
+
+        // States from which no final state can be reached
+        public List<State> getDeadStates() {
+            return deadStates;
+        }
+
+        public boolean isDeterministic() {
+            return determinismViolations.isEmpty();
+        }
+
+        public boolean isComplete() {
+            return missingTransitions.isEmpty();
+        }
+
+        // What a DEA in the strict sense needs: an initial state, exactly one target per symbol, no ε
+        public boolean isValidDfa() {
+            return !missingInitialState && isDeterministic() && isComplete() && epsilonTransitions.isEmpty();
+        }
+    }
+
+    public static class DeterminismViolation {
+        private final State state;
+        private final String symbol;
+        private final List<State> targets;
+
+        public DeterminismViolation(State state, String symbol, List<State> targets) {
+            this.state = state;
+            this.symbol = symbol;
+            this.targets = targets;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        public List<State> getTargets() {
+            return targets;
+        }
+
+        @Override
+        public String toString() {
+            return state.getId() + " --" + symbol + "--> " + targets;
+        }
+    }
+
+    public static class MissingTransition {
+        private final State state;
+        private final String symbol;
+
+        public MissingTransition(State state, String symbol) {
+            this.state = state;
+            this.symbol = symbol;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        @Override
+        public String toString() {
+            return state.getId() + " --" + symbol + "--> ?";
+        }
+    }
 }
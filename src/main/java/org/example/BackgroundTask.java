@@ -0,0 +1,161 @@
+package org.example;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Runs a computation on a virtual thread, so the EDT stays responsive, and delivers the result
+// (or the error) back on the EDT. If the task takes longer than SHOW_DELAY_MILLIS, a small
+// dialog shows its progress and offers "Abbrechen". Cancelling interrupts the thread and drops
+// the result; work that does not check for the interrupt simply runs out in the background.
+// The work should only touch data of its own, e.g. an Automaton.copy() taken beforehand.
+public final class BackgroundTask<T> {
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+    private static final int SHOW_DELAY_MILLIS = 300;
+    private static final int UPDATE_MILLIS = 100;
+
+    private final Component parent;
+    private final String title;
+    private final Consumer<T> onSuccess;
+    private final Runnable onCancel;
+    private final Progress progress = new Progress();
+    private final long started = System.nanoTime();
+    private final javax.swing.Timer updater;
+    private Future<?> future;
+    private JDialog dialog;
+    private JProgressBar progressBar;
+    private boolean finished;
+
+    private BackgroundTask(Component parent, String title, Consumer<T> onSuccess, Runnable onCancel) {
+        this.parent = parent;
+        this.title = title;
+        this.onSuccess = onSuccess;
+        this.onCancel = onCancel;
+        this.updater = new javax.swing.Timer(UPDATE_MILLIS, e -> updateDialog());
+    }
+
+    // Must be called on the EDT; onSuccess and onCancel run on the EDT as well
+    public static <T> BackgroundTask<T> start(Component parent, String title,
+                                              Function<Progress, T> work,
+                                              Consumer<T> onSuccess, Runnable onCancel) {
+        BackgroundTask<T> task = new BackgroundTask<>(parent, title, onSuccess, onCancel);
+        task.future = EXECUTOR.submit(() -> task.execute(work));
+        task.updater.start();
+        return task;
+    }
+
+    public static <T> BackgroundTask<T> start(Component parent, String title,
+                                              Function<Progress, T> work, Consumer<T> onSuccess) {
+        return start(parent, title, work, onSuccess, () -> { });
+    }
+
+    private void execute(Function<Progress, T> work) {
+        try {
+            T result = work.apply(progress);
+            SwingUtilities.invokeLater(() -> finish(result, null));
+        } catch (CancellationException e) {
+            // cancel() has already cleaned up
+        } catch (RuntimeException | Error e) {
+            SwingUtilities.invokeLater(() -> finish(null, e));
+        }
+    }
+
+    public boolean isRunning() {
+        return !finished;
+    }
+
+    // Stops waiting for the task; its result, if it still arrives, is ignored
+    public void cancel() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        future.cancel(true);
+        close();
+        onCancel.run();
+    }
+
+    private void finish(T result, Throwable error) {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        close();
+        if (error != null) {
+            JOptionPane.showMessageDialog(parent, title + " fehlgeschlagen:\n" + error,
+                    "Fehler", JOptionPane.ERROR_MESSAGE);
+            onCancel.run();
+        } else {
+            onSuccess.accept(result);
+        }
+    }
+
+    private void close() {
+        updater.stop();
+        if (dialog != null) {
+            dialog.dispose();
+            dialog = null;
+        }
+    }
+
+    private void updateDialog() {
+        if (dialog == null) {
+            if (System.nanoTime() - started < SHOW_DELAY_MILLIS * 1_000_000L) {
+                return;
+            }
+            createDialog();
+        }
+        double fraction = progress.fraction;
+        if (fraction < 0) {
+            progressBar.setIndeterminate(true);
+        } else {
+            progressBar.setIndeterminate(false);
+            progressBar.setValue((int) Math.round(fraction * 1000));
+        }
+    }
+
+    private void createDialog() {
+        Window owner = parent == null ? null : SwingUtilities.getWindowAncestor(parent);
+        dialog = new JDialog(owner, title, Dialog.ModalityType.MODELESS);
+        dialog.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+
+        progressBar = new JProgressBar(0, 1000);
+        progressBar.setPreferredSize(new Dimension(300, 20));
+
+        JButton cancelButton = new JButton("Abbrechen");
+        cancelButton.addActionListener(e -> cancel());
+
+        JPanel panel = new JPanel(new BorderLayout(10, 10));
+        panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        panel.add(new JLabel(title + " läuft..."), BorderLayout.NORTH);
+        panel.add(progressBar, BorderLayout.CENTER);
+        panel.add(cancelButton, BorderLayout.SOUTH);
+
+        dialog.setContentPane(panel);
+        dialog.pack();
+        dialog.setLocationRelativeTo(parent);
+        dialog.setVisible(true);
+    }
+
+    // Handed to the work: report how far it is, and find out whether it was cancelled
+    public static final class Progress {
+        private volatile double fraction = -1; // unknown
+
+        // A value between 0 and 1
+        public void set(double fraction) {
+            this.fraction = Math.max(0, Math.min(1, fraction));
+        }
+
+        // Throws CancellationException once the task was cancelled
+        public void checkCancelled() {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException();
+            }
+        }
+    }
+}
@@ -8,6 +8,7 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.awt.geom.*;
+import java.awt.image.BufferedImage;
 import java.util.*;
 import java.util.List;
 
@@ -16,7 +17,47 @@ public class CanvasPanel extends JPanel {
     private State selectedState;
     private State draggedState;
     private Point dragOffset;
+    private Point dragStart;
     private EditorMode mode;
+    // Geometry of every drawn transition. Edits made on the canvas drop only the edges they can
+    // affect; changes made elsewhere (import, conversion, clearing) drop everything.
+    private final Map<Transition, EdgeGeometry> edgeCache = new HashMap<>();
+    private int cachedModCount = -1;
+    // How far the farthest transition reaches out from the nearer of its states,
+    // -1 if it has to be measured again
+    private int edgeReach = -1;
+    // Everything except the dragged state and its edges, redrawn only after a change.
+    // While dragging, only the overlay (dragged state and its edges) is painted on top of it.
+    private BufferedImage background;
+    private boolean backgroundValid;
+    // View transform: screen = world * zoom + pan
+    private double zoom = 1.0;
+    private double panX;
+    private double panY;
+    private Point panStart;
+    // Animation of states towards new positions (from an automatic layout)
+    private final javax.swing.Timer animation = new javax.swing.Timer(15, e -> animationStep());
+    private List<State> animatedStates = List.of();
+    private int[] startX;
+    private int[] startY;
+    private int[] targetX;
+    private int[] targetY;
+    private long animationStart;
+
+    private static final Font STATE_FONT = new Font("Arial", Font.BOLD, 14);
+    private static final Font LABEL_FONT = new Font("Arial", Font.PLAIN, 12);
+    private static final BasicStroke STROKE = new BasicStroke(2);
+    private static final BasicStroke THIN_STROKE = new BasicStroke(1);
+    private static final Color SELECTED_FILL = new Color(173, 216, 230);
+
+    private static final double MIN_ZOOM = 0.02;
+    private static final double MAX_ZOOM = 4.0;
+    private static final double ZOOM_STEP = 1.25;
+    // Below this zoom, states are drawn as dots and transitions as plain lines
+    private static final double DETAIL_ZOOM = 0.4;
+    // A straight edge passing closer than this to another state is curved around it
+    private static final int OBSTACLE_DISTANCE = 45;
+    private static final long ANIMATION_MILLIS = 250;
 
     public enum EditorMode {
         SELECT, ADD_STATE, ADD_TRANSITION, SET_INITIAL, SET_FINAL, DELETE
@@ -37,16 +78,28 @@ public class CanvasPanel extends JPanel {
 
             @Override
             public void mousePressed(MouseEvent e) {
-                State clickedState = automaton.getStateAt(e.getX(), e.getY());
+                // Middle or right button always pans
+                if (!SwingUtilities.isLeftMouseButton(e)) {
+                    panStart = e.getPoint();
+                    return;
+                }
+
+                Point p = toWorld(e.getPoint());
+                State clickedState = automaton.getStateAt(p.x, p.y);
+                boolean cacheCurrent = cachedModCount == automaton.getModCount();
 
                 switch (mode) {
                     case SELECT:
                         if (clickedState != null) {
                             draggedState = clickedState;
+                            dragStart = new Point(clickedState.getPosition());
                             dragOffset = new Point(
-                                    e.getX() - clickedState.getPosition().x,
-                                    e.getY() - clickedState.getPosition().y
+                                    p.x - clickedState.getPosition().x,
+                                    p.y - clickedState.getPosition().y
                             );
+                        } else {
+                            // Dragging empty space pans the view
+                            panStart = e.getPoint();
                         }
                         selectedState = clickedState;
                         break;
@@ -54,8 +107,9 @@ public class CanvasPanel extends JPanel {
                     case ADD_STATE:
                         if (clickedState == null) {
                             int stateNum = automaton.getStateCount();
-                            State newState = new State("q" + stateNum, e.getX(), e.getY());
+                            State newState = new State("q" + stateNum, p.x, p.y);
                             automaton.addState(newState);
+                            invalidateEdgesNear(p);
                         }
                         break;
 
@@ -68,7 +122,7 @@ public class CanvasPanel extends JPanel {
                                 // Ask for symbol
                                 String symbol = JOptionPane.showInputDialog(
                                         CanvasPanel.this,
-                                        "Enter transition symbol:",
+                                        "Enter transition symbol (" + Transition.EPSILON + " for epsilon):",
                                         "Add Transition",
                                         JOptionPane.PLAIN_MESSAGE
                                 );
@@ -76,6 +130,8 @@ public class CanvasPanel extends JPanel {
                                 if (symbol != null && !symbol.trim().isEmpty()) {
                                     Transition t = new Transition(transitionStart, clickedState, symbol.trim());
                                     automaton.addTransition(t);
+                                    // Parallel and reverse edges are curved apart now
+                                    invalidateEdgesBetween(transitionStart, clickedState);
                                 }
 
                                 transitionStart = null;
@@ -98,38 +154,206 @@ public class CanvasPanel extends JPanel {
 
                     case DELETE:
                         if (clickedState != null) {
+                            invalidateEdges(clickedState);
                             automaton.removeState(clickedState);
+                            invalidateEdgesNear(clickedState.getPosition());
                         }
                         break;
                 }
 
+                // The edits above took care of the edges they affect
+                if (cacheCurrent) {
+                    cachedModCount = automaton.getModCount();
+                }
+                invalidateBackground();
                 repaint();
             }
 
             @Override
             public void mouseDragged(MouseEvent e) {
-                if (mode == EditorMode.SELECT && draggedState != null) {
+                if (panStart != null) {
+                    panX += e.getX() - panStart.x;
+                    panY += e.getY() - panStart.y;
+                    panStart = e.getPoint();
+                    invalidateBackground();
+                    repaint();
+                } else if (mode == EditorMode.SELECT && draggedState != null) {
+                    Point p = toWorld(e.getPoint());
+                    Rectangle before = overlayBounds();
                     draggedState.setPosition(
-                            e.getX() - dragOffset.x,
-                            e.getY() - dragOffset.y
+                            p.x - dragOffset.x,
+                            p.y - dragOffset.y
                     );
-                    repaint();
+                    invalidateEdges(draggedState);
+                    // Only the area the overlay left and the area it now covers
+                    repaint(toScreen(before.union(overlayBounds())));
                 }
             }
 
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                zoomAt(e.getPoint(), Math.pow(ZOOM_STEP, -e.getPreciseWheelRotation()));
+            }
+
             @Override
             public void mouseReleased(MouseEvent e) {
-                draggedState = null;
+                panStart = null;
+                if (draggedState != null) {
+                    // The moved state may now block (or free) edges it is not part of
+                    invalidateEdgesNear(dragStart);
+                    invalidateEdgesNear(draggedState.getPosition());
+                    draggedState = null;
+                    invalidateBackground();
+                    repaint();
+                }
             }
         };
 
         addMouseListener(mouseHandler);
         addMouseMotionListener(mouseHandler);
+        addMouseWheelListener(mouseHandler);
+    }
+
+    public double getZoom() {
+        return zoom;
+    }
+
+    public void zoomIn() {
+        zoomAt(new Point(getWidth() / 2, getHeight() / 2), ZOOM_STEP);
+    }
+
+    public void zoomOut() {
+        zoomAt(new Point(getWidth() / 2, getHeight() / 2), 1 / ZOOM_STEP);
+    }
+
+    public void resetView() {
+        zoom = 1.0;
+        panX = 0;
+        panY = 0;
+        invalidateBackground();
+        repaint();
+    }
+
+    // Zoom and pan so that all states are visible (never zooms in beyond 100%)
+    public void fitToContent() {
+        if (automaton.getStateCount() == 0 || getWidth() <= 0 || getHeight() <= 0) {
+            resetView();
+            return;
+        }
+        Rectangle content = null;
+        for (State state : automaton.getStates()) {
+            if (content == null) {
+                content = stateBounds(state);
+            } else {
+                content.add(stateBounds(state));
+            }
+        }
+        content.grow(20, 20);
+        double fit = Math.min((double) getWidth() / content.width, (double) getHeight() / content.height);
+        zoom = Math.max(MIN_ZOOM, Math.min(1.0, fit));
+        panX = (getWidth() - content.width * zoom) / 2 - content.x * zoom;
+        panY = (getHeight() - content.height * zoom) / 2 - content.y * zoom;
+        invalidateBackground();
+        repaint();
+    }
+
+    // Keeps the world point under 'anchor' in place
+    private void zoomAt(Point anchor, double factor) {
+        double newZoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom * factor));
+        if (newZoom == zoom) {
+            return;
+        }
+        panX = anchor.x - (anchor.x - panX) * newZoom / zoom;
+        panY = anchor.y - (anchor.y - panY) * newZoom / zoom;
+        zoom = newZoom;
+        invalidateBackground();
+        repaint();
+    }
+
+    private Point toWorld(Point screen) {
+        return new Point(
+                (int) Math.floor((screen.x - panX) / zoom),
+                (int) Math.floor((screen.y - panY) / zoom)
+        );
+    }
+
+    private Rectangle toScreen(Rectangle world) {
+        int x1 = (int) Math.floor(world.x * zoom + panX);
+        int y1 = (int) Math.floor(world.y * zoom + panY);
+        int x2 = (int) Math.ceil((world.x + world.width) * zoom + panX);
+        int y2 = (int) Math.ceil((world.y + world.height) * zoom + panY);
+        return new Rectangle(x1 - 1, y1 - 1, x2 - x1 + 2, y2 - y1 + 2);
+    }
+
+    // Visible part of the world
+    private Rectangle visibleWorld() {
+        Point topLeft = toWorld(new Point(0, 0));
+        Point bottomRight = toWorld(new Point(getWidth(), getHeight()));
+        return new Rectangle(topLeft.x, topLeft.y, bottomRight.x - topLeft.x + 1, bottomRight.y - topLeft.y + 1);
+    }
+
+    private boolean isDetailed() {
+        return zoom >= DETAIL_ZOOM;
     }
 
     public void setMode(EditorMode mode) {
         this.mode = mode;
         selectedState = null;
+        invalidateBackground();
+        repaint();
+    }
+
+    // To be called after state positions were changed from outside the canvas
+    public void positionsChanged() {
+        edgeCache.clear();
+        edgeReach = -1;
+        invalidateBackground();
+        repaint();
+    }
+
+    // Moves the states smoothly to the given positions; a new call continues from wherever
+    // the states are at that moment. A state the user is dragging is left alone.
+    public void animateTo(List<State> states, int[] x, int[] y) {
+        int count = states.size();
+        animatedStates = states;
+        startX = new int[count];
+        startY = new int[count];
+        for (int i = 0; i < count; i++) {
+            Point pos = states.get(i).getPosition();
+            startX[i] = pos.x;
+            startY[i] = pos.y;
+        }
+        targetX = x.clone();
+        targetY = y.clone();
+        animationStart = System.nanoTime();
+        animation.start();
+    }
+
+    // Leaves the states wherever the animation has brought them so far
+    public void stopAnimation() {
+        animation.stop();
+    }
+
+    private void animationStep() {
+        double t = Math.min(1.0, (System.nanoTime() - animationStart) / (ANIMATION_MILLIS * 1_000_000.0));
+        double eased = t * (2 - t);
+        for (int i = 0; i < animatedStates.size(); i++) {
+            State state = animatedStates.get(i);
+            if (state != draggedState) {
+                state.setPosition(
+                        startX[i] + (int) Math.round((targetX[i] - startX[i]) * eased),
+                        startY[i] + (int) Math.round((targetY[i] - startY[i]) * eased)
+                );
+            }
+        }
+        if (t >= 1.0) {
+            animation.stop();
+        }
+        positionsChanged();
+    }
+
+    private void invalidateBackground() {
+        backgroundValid = false;
     }
 
     @Override
@@ -138,15 +362,248 @@ public class CanvasPanel extends JPanel {
         Graphics2D g2 = (Graphics2D) g;
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-        // Draw transitions
-        for (Transition t : automaton.getTransitions()) {
-            drawTransition(g2, t);
+        if (automaton.getModCount() != cachedModCount) {
+            edgeCache.clear();
+            edgeReach = -1;
+            cachedModCount = automaton.getModCount();
+            backgroundValid = false;
         }
 
-        // Draw states
-        for (State state : automaton.getStates()) {
-            drawState(g2, state);
+        // Device scale, so the cached layer stays sharp on HiDPI screens
+        double scaleX = g2.getTransform().getScaleX();
+        double scaleY = g2.getTransform().getScaleY();
+        int imageWidth = (int) Math.ceil(getWidth() * scaleX);
+        int imageHeight = (int) Math.ceil(getHeight() * scaleY);
+        if (imageWidth <= 0 || imageHeight <= 0) {
+            return;
+        }
+        if (background == null || background.getWidth() != imageWidth || background.getHeight() != imageHeight) {
+            background = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_ARGB);
+            backgroundValid = false;
+        }
+        if (!backgroundValid) {
+            paintBackground(scaleX, scaleY);
+            backgroundValid = true;
+        }
+
+        // Drawing the image only touches the clip, so small repaints stay cheap
+        g2.drawImage(background, 0, 0, getWidth(), getHeight(), null);
+        if (draggedState != null) {
+            paintOverlay(g2);
+        }
+    }
+
+    // Only what lies in the visible part of the world is drawn
+    private void paintBackground(double scaleX, double scaleY) {
+        Graphics2D g2 = background.createGraphics();
+        g2.setComposite(AlphaComposite.Clear);
+        g2.fillRect(0, 0, background.getWidth(), background.getHeight());
+        g2.setComposite(AlphaComposite.SrcOver);
+        g2.scale(scaleX, scaleY);
+
+        Rectangle visible = visibleWorld();
+        Rectangle stateArea = new Rectangle(visible);
+        stateArea.grow(State.RADIUS + 35, State.RADIUS + 5);
+        List<State> states = automaton.getStatesIn(stateArea);
+        List<Transition> transitions = visibleTransitions(visible);
+
+        if (isDetailed()) {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.translate(panX, panY);
+            g2.scale(zoom, zoom);
+
+            // Draw transitions
+            for (Transition t : transitions) {
+                drawTransition(g2, edgeGeometry(t));
+            }
+
+            // Draw states
+            for (State state : states) {
+                if (!state.equals(draggedState) && stateBounds(state).intersects(visible)) {
+                    drawState(g2, state);
+                }
+            }
+        } else {
+            drawSimplifiedTransitions(g2, transitions);
+            for (State state : states) {
+                if (!state.equals(draggedState)) {
+                    drawSimplifiedState(g2, state);
+                }
+            }
+        }
+        g2.dispose();
+    }
+
+    // Transitions found through the states near the view, so the cost follows what is visible
+    // rather than the size of the automaton. Every drawn transition lies within edgeReach() of
+    // one of its states, so growing the view by that much finds them all.
+    private List<Transition> visibleTransitions(Rectangle visible) {
+        int margin = edgeReach() + 1;
+        Rectangle edgeArea = new Rectangle(visible);
+        edgeArea.grow(margin, margin);
+        List<Transition> result = new ArrayList<>();
+        for (State state : automaton.getStatesIn(edgeArea)) {
+            if (!edgeArea.contains(state.getPosition())) {
+                continue;
+            }
+            for (Transition t : automaton.getTransitionsFrom(state)) {
+                addIfVisible(t, visible, result);
+            }
+            for (Transition t : automaton.getTransitionsTo(state)) {
+                // Found once from its source already if that is near the view, too
+                if (!edgeArea.contains(t.getFromState().getPosition())) {
+                    addIfVisible(t, visible, result);
+                }
+            }
+        }
+        return result;
+    }
+
+    // Measured on the cached edge boxes once after edits and moves, not on every pan or zoom.
+    // Curved, parallel and self-loop edges reach as far out as their labels are fanned out;
+    // the plain line of the zoomed-out view at most half its length.
+    private int edgeReach() {
+        if (edgeReach < 0) {
+            int reach = 0;
+            for (Transition t : automaton.getTransitions()) {
+                Rectangle bounds = edgeGeometry(t).bounds;
+                Point from = t.getFromState().getPosition();
+                Point to = t.getToState().getPosition();
+                int line = (Math.max(Math.abs(to.x - from.x), Math.abs(to.y - from.y)) + 1) / 2;
+                reach = Math.max(reach, Math.max(line, Math.min(reachFrom(from, bounds), reachFrom(to, bounds))));
+            }
+            edgeReach = reach;
+        }
+        return edgeReach;
+    }
+
+    // Farthest distance along x or y from the point to a corner of the box
+    private static int reachFrom(Point point, Rectangle bounds) {
+        return Math.max(
+                Math.max(point.x - bounds.x, bounds.x + bounds.width - point.x),
+                Math.max(point.y - bounds.y, bounds.y + bounds.height - point.y));
+    }
+
+    private void addIfVisible(Transition t, Rectangle visible, List<Transition> result) {
+        if (!touchesDraggedState(t) && isVisible(t, visible)) {
+            result.add(t);
+        }
+    }
+
+    // The zoomed-out view draws plain lines between the states, the detailed one the cached edge
+    private boolean isVisible(Transition t, Rectangle visible) {
+        if (!isDetailed()) {
+            Point from = t.getFromState().getPosition();
+            Point to = t.getToState().getPosition();
+            return visible.intersectsLine(from.x, from.y, to.x, to.y);
         }
+        return edgeGeometry(t).bounds.intersects(visible);
+    }
+
+    // Edges of the dragged state, then its neighbours again so edges stay below circles
+    private void paintOverlay(Graphics2D g) {
+        Graphics2D g2 = (Graphics2D) g.create();
+        boolean detailed = isDetailed();
+        if (detailed) {
+            g2.translate(panX, panY);
+            g2.scale(zoom, zoom);
+        }
+        Set<State> neighbours = new HashSet<>();
+        List<Transition> transitions = new ArrayList<>();
+        for (Transition t : automaton.getTransitionsFrom(draggedState)) {
+            transitions.add(t);
+            neighbours.add(t.getToState());
+        }
+        for (Transition t : automaton.getTransitionsTo(draggedState)) {
+            if (!t.getFromState().equals(draggedState)) {
+                transitions.add(t);
+                neighbours.add(t.getFromState());
+            }
+        }
+        neighbours.remove(draggedState);
+
+        if (detailed) {
+            for (Transition t : transitions) {
+                drawTransition(g2, edgeGeometry(t));
+            }
+            for (State state : neighbours) {
+                drawState(g2, state);
+            }
+            drawState(g2, draggedState);
+        } else {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+            drawSimplifiedTransitions(g2, transitions);
+            for (State state : neighbours) {
+                drawSimplifiedState(g2, state);
+            }
+            drawSimplifiedState(g2, draggedState);
+        }
+        g2.dispose();
+    }
+
+    // Level of detail for zoomed-out views, drawn in screen coordinates:
+    // one path of straight center-to-center lines, without arrow heads or labels
+    private void drawSimplifiedTransitions(Graphics2D g2, List<Transition> transitions) {
+        Path2D lines = new Path2D.Double();
+        for (Transition t : transitions) {
+            Point from = t.getFromState().getPosition();
+            Point to = t.getToState().getPosition();
+            if (!from.equals(to)) {
+                lines.moveTo(from.x * zoom + panX, from.y * zoom + panY);
+                lines.lineTo(to.x * zoom + panX, to.y * zoom + panY);
+            }
+        }
+        g2.setColor(Color.GRAY);
+        g2.setStroke(THIN_STROKE);
+        g2.draw(lines);
+    }
+
+    // A dot the size of the state; final states are filled, the initial state is red
+    private void drawSimplifiedState(Graphics2D g2, State state) {
+        Point pos = state.getPosition();
+        int size = Math.max(3, (int) Math.round(2 * State.RADIUS * zoom));
+        int x = (int) Math.round(pos.x * zoom + panX) - size / 2;
+        int y = (int) Math.round(pos.y * zoom + panY) - size / 2;
+        Color color = state.isInitial() ? Color.RED : Color.BLACK;
+        if (state.isFinal() || size <= 4) {
+            g2.setColor(color);
+            g2.fillOval(x, y, size, size);
+        } else {
+            g2.setColor(state.equals(selectedState) ? SELECTED_FILL : Color.WHITE);
+            g2.fillOval(x, y, size, size);
+            g2.setColor(color);
+            g2.drawOval(x, y, size, size);
+        }
+    }
+
+    private boolean touchesDraggedState(Transition t) {
+        return draggedState != null
+                && (t.getFromState().equals(draggedState) || t.getToState().equals(draggedState));
+    }
+
+    // World area of the overlay: the dragged state (with initial arrow and label) and its edges;
+    // toScreen() turns it into the area to repaint
+    private Rectangle overlayBounds() {
+        Rectangle bounds = stateBounds(draggedState);
+        // Neighbours are redrawn by the overlay as well
+        for (Transition t : automaton.getTransitionsFrom(draggedState)) {
+            bounds.add(edgeGeometry(t).bounds);
+            bounds.add(stateBounds(t.getToState()));
+        }
+        for (Transition t : automaton.getTransitionsTo(draggedState)) {
+            bounds.add(edgeGeometry(t).bounds);
+            bounds.add(stateBounds(t.getFromState()));
+        }
+        return bounds;
+    }
+
+    // Circle and initial-state arrow, with room for the stroke
+    private Rectangle stateBounds(State state) {
+        Point pos = state.getPosition();
+        int radius = State.RADIUS;
+        Rectangle bounds = new Rectangle(pos.x - radius - 30, pos.y - radius, 2 * radius + 30, 2 * radius);
+        bounds.grow(3, 3);
+        return bounds;
     }
 
     private void drawState(Graphics2D g2, State state) {
@@ -155,14 +612,14 @@ public class CanvasPanel extends JPanel {
 
         // Draw state circle
         if (state.equals(selectedState)) {
-            g2.setColor(new Color(173, 216, 230));
+            g2.setColor(SELECTED_FILL);
         } else {
             g2.setColor(Color.WHITE);
         }
         g2.fillOval(pos.x - radius, pos.y - radius, radius * 2, radius * 2);
 
         g2.setColor(Color.BLACK);
-        g2.setStroke(new BasicStroke(2));
+        g2.setStroke(STROKE);
         g2.drawOval(pos.x - radius, pos.y - radius, radius * 2, radius * 2);
 
         // Draw double circle for final states
@@ -182,79 +639,129 @@ public class CanvasPanel extends JPanel {
         }
 
         // Draw state label
-        g2.setFont(new Font("Arial", Font.BOLD, 14));
+        g2.setFont(STATE_FONT);
         FontMetrics fm = g2.getFontMetrics();
         int textWidth = fm.stringWidth(state.getId());
         g2.drawString(state.getId(), pos.x - textWidth / 2, pos.y + 5);
     }
 
-    private void drawTransition(Graphics2D g2, Transition t) {
-        Point from = t.getFromState().getPosition();
-        Point to = t.getToState().getPosition();
+    // A dropped edge may come back larger, so the reach is measured again as well
+    private void invalidateEdges(State state) {
+        edgeReach = -1;
+        for (Transition t : automaton.getTransitionsFrom(state)) {
+            edgeCache.remove(t);
+        }
+        for (Transition t : automaton.getTransitionsTo(state)) {
+            edgeCache.remove(t);
+        }
+    }
+
+    private void invalidateEdgesBetween(State a, State b) {
+        edgeReach = -1;
+        for (Transition t : automaton.getTransitionsBetween(a, b)) {
+            edgeCache.remove(t);
+        }
+        for (Transition t : automaton.getTransitionsBetween(b, a)) {
+            edgeCache.remove(t);
+        }
+    }
 
+    // Edges that may have to curve around a state at this position, or may be straight again
+    // now that it is gone
+    private void invalidateEdgesNear(Point position) {
+        edgeReach = -1;
+        int reach = OBSTACLE_DISTANCE + State.RADIUS;
+        edgeCache.values().removeIf(geometry -> {
+            Rectangle area = new Rectangle(geometry.bounds);
+            area.grow(reach, reach);
+            return area.contains(position);
+        });
+    }
+
+    private EdgeGeometry edgeGeometry(Transition t) {
+        EdgeGeometry geometry = edgeCache.get(t);
+        if (geometry == null) {
+            geometry = computeGeometry(t);
+            edgeCache.put(t, geometry);
+        }
+        return geometry;
+    }
+
+    private void drawTransition(Graphics2D g2, EdgeGeometry geometry) {
         g2.setColor(Color.BLACK);
-        g2.setStroke(new BasicStroke(2));
+        g2.setStroke(STROKE);
+        g2.draw(geometry.edge);
+        g2.draw(geometry.arrowHead);
+
+        g2.setFont(LABEL_FONT);
+        if (geometry.labelBackground != null) {
+            g2.setColor(Color.WHITE);
+            g2.fill(geometry.labelBackground);
+            g2.setColor(Color.BLACK);
+        }
+        g2.drawString(geometry.label, geometry.labelX, geometry.labelY);
+    }
+
+    private EdgeGeometry computeGeometry(Transition t) {
+        Point from = t.getFromState().getPosition();
 
         // Self-loop
         if (t.getFromState().equals(t.getToState())) {
             int loopSize = 40;
-            g2.drawArc(from.x - loopSize/2, from.y - 50, loopSize, loopSize, 0, 270);
+            Shape loop = new Arc2D.Double(from.x - loopSize / 2.0, from.y - 50, loopSize, loopSize, 0, 270, Arc2D.OPEN);
 
             // Arrow head
             int arrowX = from.x + 15;
             int arrowY = from.y - 30;
-            g2.drawLine(arrowX, arrowY, arrowX - 5, arrowY - 5);
-            g2.drawLine(arrowX, arrowY, arrowX + 3, arrowY - 5);
+            Path2D arrowHead = new Path2D.Double();
+            arrowHead.moveTo(arrowX, arrowY);
+            arrowHead.lineTo(arrowX - 5, arrowY - 5);
+            arrowHead.moveTo(arrowX, arrowY);
+            arrowHead.lineTo(arrowX + 3, arrowY - 5);
 
             // Label
-            g2.setFont(new Font("Arial", Font.PLAIN, 12));
-            g2.drawString(t.getSymbol(), from.x + 5, from.y - 55);
-        } else {
-            // Count transitions between these two states
-            List<Transition> parallelTransitions = getParallelTransitions(t.getFromState(), t.getToState());
-            int index = parallelTransitions.indexOf(t);
-            int totalCount = parallelTransitions.size();
+            return new EdgeGeometry(loop, arrowHead, t.getSymbol(), from.x + 5, from.y - 55, null);
+        }
 
-            // Also check reverse direction
-            List<Transition> reverseTransitions = getParallelTransitions(t.getToState(), t.getFromState());
-            boolean hasReverse = !reverseTransitions.isEmpty();
+        // Count transitions between these two states
+        List<Transition> parallelTransitions = getParallelTransitions(t.getFromState(), t.getToState());
+        int index = parallelTransitions.indexOf(t);
+        int totalCount = parallelTransitions.size();
 
-            // Check if line would pass through other states
-            boolean wouldIntersectStates = checkLineIntersectsStates(t.getFromState(), t.getToState());
+        // Also check reverse direction
+        List<Transition> reverseTransitions = getParallelTransitions(t.getToState(), t.getFromState());
+        boolean hasReverse = !reverseTransitions.isEmpty();
 
-            if (totalCount == 1 && !hasReverse && !wouldIntersectStates) {
-                // Single transition, no reverse, no obstruction - draw straight
-                drawStraightTransition(g2, t);
-            } else {
-                // Multiple transitions, bidirectional, or obstructed - draw curved
-                drawCurvedTransitionWithIndex(g2, t, index, totalCount, hasReverse || wouldIntersectStates);
-            }
+        // Check if line would pass through other states
+        boolean wouldIntersectStates = checkLineIntersectsStates(t.getFromState(), t.getToState());
+
+        if (totalCount == 1 && !hasReverse && !wouldIntersectStates) {
+            // Single transition, no reverse, no obstruction - draw straight
+            return straightGeometry(t);
+        } else {
+            // Multiple transitions, bidirectional, or obstructed - draw curved
+            return curvedGeometry(t, index, totalCount, hasReverse || wouldIntersectStates);
         }
     }
 
     private List<Transition> getParallelTransitions(State from, State to) {
-        List<Transition> result = new ArrayList<>();
-        for (Transition t : automaton.getTransitions()) {
-            if (t.getFromState().equals(from) && t.getToState().equals(to)) {
-                result.add(t);
-            }
-        }
-        return result;
+        return automaton.getTransitionsBetween(from, to);
     }
 
     private boolean checkLineIntersectsStates(State from, State to) {
         // Check if a straight line the already existing would pass too close to any other state
-        int checkRadius = 45; // Distance threshold
+        int checkRadius = OBSTACLE_DISTANCE;
+        Point fromPos = from.getPosition();
+        Point toPos = to.getPosition();
 
-        for (State state : automaton.getStates()) {
+        // Only states in grid cells along the line can be close enough
+        for (State state : automaton.getStatesNearSegment(fromPos.x, fromPos.y, toPos.x, toPos.y, checkRadius)) {
             if (state.equals(from) || state.equals(to)) {
                 continue;
             }
 
             // Calculate distance from state to line segment
             Point statePos = state.getPosition();
-            Point fromPos = from.getPosition();
-            Point toPos = to.getPosition();
 
             double distance = pointToLineDistance(
                     statePos.x, statePos.y,
@@ -306,7 +813,7 @@ public class CanvasPanel extends JPanel {
         return t > 0.1 && t < 0.9; // Between endpoints with some margin
     }
 
-    private void drawStraightTransition(Graphics2D g2, Transition t) {
+    private EdgeGeometry straightGeometry(Transition t) {
         Point from = t.getFromState().getPosition();
         Point to = t.getToState().getPosition();
 
@@ -317,19 +824,14 @@ public class CanvasPanel extends JPanel {
         int endX = to.x - (int)(30 * Math.cos(angle));
         int endY = to.y - (int)(30 * Math.sin(angle));
 
-        // Draw line
-        g2.drawLine(startX, startY, endX, endY);
-
-        // Draw arrow head
-        drawArrowHead(g2, endX, endY, angle);
-
-        // Draw label in middle
+        // Label in middle
         int midX = (startX + endX) / 2;
         int midY = (startY + endY) / 2;
-        drawTransitionLabel(g2, t.getSymbol(), midX, midY);
+        return labelledGeometry(new Line2D.Double(startX, startY, endX, endY),
+                arrowHead(endX, endY, angle), t.getSymbol(), midX, midY);
     }
 
-    private void drawCurvedTransitionWithIndex(Graphics2D g2, Transition t, int index, int totalCount, boolean forceCurve) {
+    private EdgeGeometry curvedGeometry(Transition t, int index, int totalCount, boolean forceCurve) {
         Point from = t.getFromState().getPosition();
         Point to = t.getToState().getPosition();
 
@@ -382,44 +884,72 @@ public class CanvasPanel extends JPanel {
         int endX = to.x + (int)(30 * Math.cos(angleEnd));
         int endY = to.y + (int)(30 * Math.sin(angleEnd));
 
-        // Draw quadratic curve
+        // Quadratic curve
         QuadCurve2D curve = new QuadCurve2D.Double(
                 startX, startY,
                 controlX, controlY,
                 endX, endY
         );
-        g2.draw(curve);
 
         // Calculate angle for arrow head (tangent at end point)
         double arrowAngle = Math.atan2(endY - controlY, endX - controlX);
-        drawArrowHead(g2, endX, endY, arrowAngle);
 
-        // Draw label at control point (slightly offset for better visibility)
+        // Label at control point (slightly offset for better visibility)
         int labelOffsetX = (int)(perpX * 10);
         int labelOffsetY = (int)(perpY * 10);
-        drawTransitionLabel(g2, t.getSymbol(), (int)controlX + labelOffsetX, (int)controlY + labelOffsetY);
+        return labelledGeometry(curve, arrowHead(endX, endY, arrowAngle), t.getSymbol(),
+                (int)controlX + labelOffsetX, (int)controlY + labelOffsetY);
     }
 
-    private void drawArrowHead(Graphics2D g2, int x, int y, double angle) {
+    private Shape arrowHead(int x, int y, double angle) {
         int arrowSize = 10;
         int arrowX1 = x - (int)(arrowSize * Math.cos(angle - Math.PI / 6));
         int arrowY1 = y - (int)(arrowSize * Math.sin(angle - Math.PI / 6));
         int arrowX2 = x - (int)(arrowSize * Math.cos(angle + Math.PI / 6));
         int arrowY2 = y - (int)(arrowSize * Math.sin(angle + Math.PI / 6));
 
-        g2.drawLine(x, y, arrowX1, arrowY1);
-        g2.drawLine(x, y, arrowX2, arrowY2);
+        Path2D head = new Path2D.Double();
+        head.moveTo(x, y);
+        head.lineTo(arrowX1, arrowY1);
+        head.moveTo(x, y);
+        head.lineTo(arrowX2, arrowY2);
+        return head;
     }
 
-    private void drawTransitionLabel(Graphics2D g2, String symbol, int x, int y) {
-        g2.setFont(new Font("Arial", Font.PLAIN, 12));
-        FontMetrics fm = g2.getFontMetrics();
+    // Label centered on (x, y) with a white background
+    private EdgeGeometry labelledGeometry(Shape edge, Shape arrowHead, String symbol, int x, int y) {
+        FontMetrics fm = getFontMetrics(LABEL_FONT);
         int textWidth = fm.stringWidth(symbol);
+        Rectangle background = new Rectangle(x - textWidth/2 - 2, y - 10, textWidth + 4, 16);
+        return new EdgeGeometry(edge, arrowHead, symbol, x - textWidth/2, y + 3, background);
+    }
 
-        // Background for label
-        g2.setColor(Color.WHITE);
-        g2.fillRect(x - textWidth/2 - 2, y - 10, textWidth + 4, 16);
-        g2.setColor(Color.BLACK);
-        g2.drawString(symbol, x - textWidth/2, y + 3);
+    private static final class EdgeGeometry {
+        final Shape edge;
+        final Shape arrowHead;
+        final String label;
+        final int labelX;
+        final int labelY;
+        final Rectangle labelBackground; // null for self-loops
+        final Rectangle bounds; // everything painted, including stroke width and label
+
+        EdgeGeometry(Shape edge, Shape arrowHead, String label, int labelX, int labelY, Rectangle labelBackground) {
+            this.edge = edge;
+            this.arrowHead = arrowHead;
+            this.label = label;
+            this.labelX = labelX;
+            this.labelY = labelY;
+            this.labelBackground = labelBackground;
+
+            Rectangle area = edge.getBounds();
+            area.add(arrowHead.getBounds());
+            // Generous box for the text (the self-loop label has no background rectangle)
+            area.add(new Rectangle(labelX - 2, labelY - 14, 12 * Math.max(1, label.length()) + 4, 18));
+            if (labelBackground != null) {
+                area.add(labelBackground);
+            }
+            area.grow(3, 3);
+            this.bounds = area;
+        }
     }
-}
\ No newline at end of file
+}
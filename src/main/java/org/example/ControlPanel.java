@@ -1,6 +1,8 @@
 package org.example;
 
 import org.example.core.Automaton;
+import org.example.core.State;
+import org.example.core.Transition;
 
 import javax.swing.*;
 import java.awt.*;
@@ -10,6 +12,7 @@ public class ControlPanel extends JPanel {
     private Automaton automaton;
     private ButtonGroup modeGroup;
     private JCheckBox nfaCheckBox;
+    private JLabel infoLabel;
 
     public ControlPanel(CanvasPanel canvas, Automaton automaton) {
         this.canvas = canvas;
@@ -81,6 +84,7 @@ public class ControlPanel extends JPanel {
         nfaCheckBox.setSelected(false); // Default to DEA
         nfaCheckBox.addActionListener(e -> {
             automaton.setNFA(nfaCheckBox.isSelected());
+            updateInfoLabel();
             updateModeLabel();
         });
         add(nfaCheckBox);
@@ -88,26 +92,86 @@ public class ControlPanel extends JPanel {
         add(Box.createVerticalStrut(10));
 
         // Info label showing current mode
-        JLabel infoLabel = new JLabel("<html><i>Aktuell: DEA<br>(Deterministisch)</i></html>");
+        infoLabel = new JLabel();
         infoLabel.setFont(new Font("Arial", Font.PLAIN, 11));
         infoLabel.setForeground(Color.DARK_GRAY);
         infoLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        updateInfoLabel();
         add(infoLabel);
 
-        // Update info label when checkbox changes
-        nfaCheckBox.addActionListener(e -> {
-            if (nfaCheckBox.isSelected()) {
-                infoLabel.setText("<html><i>Aktuell: NEA<br>(Nichtdeterministisch)</i></html>");
-            } else {
-                infoLabel.setText("<html><i>Aktuell: DEA<br>(Deterministisch)</i></html>");
-            }
-        });
-
         add(Box.createVerticalStrut(15));
 
+        JButton validateButton = new JButton("Automat prüfen");
+        validateButton.setAlignmentX(Component.LEFT_ALIGNMENT);
+        validateButton.setMaximumSize(new Dimension(200, 30));
+        validateButton.addActionListener(e -> validateAutomaton());
+        add(validateButton);
+
         add(Box.createVerticalGlue());
     }
 
+    // Validates a snapshot in the background and shows the report
+    public void validateAutomaton() {
+        Automaton snapshot = automaton.copy();
+        BackgroundTask.start(this, "Prüfung",
+                progress -> new AutomatonValidator().validate(snapshot),
+                report -> showValidation(report, snapshot.isNFA()));
+    }
+
+    private void showValidation(AutomatonValidator.Report report, boolean nfa) {
+        StringBuilder text = new StringBuilder();
+
+        if (report.isMissingInitialState()) {
+            text.append("Kein Anfangszustand gesetzt\n");
+        }
+        if (!nfa) {
+            for (AutomatonValidator.DeterminismViolation v : report.getDeterminismViolations()) {
+                text.append("Nicht deterministisch: ").append(v).append("\n");
+            }
+            for (Transition t : report.getEpsilonTransitions()) {
+                text.append("ε-Übergang im DEA: ").append(t).append("\n");
+            }
+        }
+        if (!report.getMissingTransitions().isEmpty()) {
+            text.append("Fehlende Übergänge: ").append(report.getMissingTransitions().size()).append("\n");
+            appendLimited(text, report.getMissingTransitions());
+        }
+        if (!report.getUnreachableStates().isEmpty()) {
+            text.append("Unerreichbare Zustände: ").append(stateIds(report.getUnreachableStates())).append("\n");
+        }
+        if (!report.getDeadStates().isEmpty()) {
+            text.append("Zustände ohne Weg zu einem Endzustand: ").append(stateIds(report.getDeadStates())).append("\n");
+        }
+        if (text.length() == 0) {
+            text.append("Keine Probleme gefunden.");
+        }
+
+        JTextArea area = new JTextArea(text.toString(), 12, 40);
+        area.setEditable(false);
+        JOptionPane.showMessageDialog(this, new JScrollPane(area), "Prüfung", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    private void appendLimited(StringBuilder text, java.util.List<?> items) {
+        int shown = Math.min(items.size(), 20);
+        for (int i = 0; i < shown; i++) {
+            text.append("  ").append(items.get(i)).append("\n");
+        }
+        if (items.size() > shown) {
+            text.append("  ...\n");
+        }
+    }
+
+    private String stateIds(java.util.List<State> states) {
+        StringBuilder ids = new StringBuilder();
+        for (State state : states) {
+            if (ids.length() > 0) {
+                ids.append(", ");
+            }
+            ids.append(state.getId());
+        }
+        return ids.toString();
+    }
+
     private void addModeButton(String text, CanvasPanel.EditorMode mode, boolean selected) {
         JRadioButton button = new JRadioButton(text);
         button.setAlignmentX(Component.LEFT_ALIGNMENT);
@@ -123,6 +187,20 @@ public class ControlPanel extends JPanel {
         }
     }
 
+    // For when the automaton was replaced as a whole, e.g. by a conversion or a regex import
+    public void syncWithAutomaton() {
+        nfaCheckBox.setSelected(automaton.isNFA());
+        updateInfoLabel();
+    }
+
+    private void updateInfoLabel() {
+        if (nfaCheckBox.isSelected()) {
+            infoLabel.setText("<html><i>Aktuell: NEA<br>(Nichtdeterministisch)</i></html>");
+        } else {
+            infoLabel.setText("<html><i>Aktuell: DEA<br>(Deterministisch)</i></html>");
+        }
+    }
+
     private void updateModeLabel() {
         canvas.repaint();
     }
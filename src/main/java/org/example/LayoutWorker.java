@@ -0,0 +1,68 @@
+package org.example;
+
+import org.example.core.Automaton;
+import org.example.core.GraphLayout;
+
+import javax.swing.*;
+import java.util.List;
+
+// Runs a GraphLayout off the EDT. Intermediate positions are published at most every
+// PUBLISH_MILLIS and handed to the canvas, which animates the states towards them.
+// The layout works on its own copy of the graph; if states or transitions are added or
+// removed meanwhile, the remaining positions would be stale, so the worker cancels itself.
+public class LayoutWorker extends SwingWorker<Void, int[][]> {
+    private static final long PUBLISH_MILLIS = 40;
+
+    private final GraphLayout layout;
+    private final Automaton automaton;
+    private final CanvasPanel canvas;
+    private final int modCount;
+
+    // Must be created on the EDT, after the layout
+    public LayoutWorker(GraphLayout layout, Automaton automaton, CanvasPanel canvas) {
+        this.layout = layout;
+        this.automaton = automaton;
+        this.canvas = canvas;
+        this.modCount = automaton.getModCount();
+    }
+
+    @Override
+    protected Void doInBackground() {
+        int count = layout.getStateCount();
+        long lastPublish = System.nanoTime();
+        boolean running = true;
+        while (running && !isCancelled()) {
+            running = layout.step();
+            long now = System.nanoTime();
+            if (!running || now - lastPublish >= PUBLISH_MILLIS * 1_000_000) {
+                int[][] positions = new int[2][count];
+                layout.copyPositions(positions[0], positions[1]);
+                publish(positions);
+                lastPublish = now;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    protected void process(List<int[][]> chunks) {
+        if (isCancelled()) {
+            return;
+        }
+        if (automaton.getModCount() != modCount) {
+            cancel(true);
+            return;
+        }
+        // Only the newest positions matter
+        int[][] positions = chunks.get(chunks.size() - 1);
+        canvas.animateTo(layout.getStates(), positions[0], positions[1]);
+    }
+
+    @Override
+    protected void done() {
+        // Otherwise the last published positions would still be animated to
+        if (isCancelled()) {
+            canvas.stopAnimation();
+        }
+    }
+}
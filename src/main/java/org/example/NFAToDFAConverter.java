@@ -1,4 +1,152 @@
 package org.example;
 
+import org.example.core.Automaton;
+import org.example.core.AutomatonTables;
+import org.example.core.CompiledNfa;
+import org.example.core.State;
+import org.example.core.StateSetTable;
+import org.example.core.SymbolTable;
+
+import java.awt.Point;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+
+// Powerset (subset) construction: turns a NEA into an equivalent DEA.
+// Discovered subsets are interned in a StateSetTable; because ids are handed out in
+// discovery order, the table itself doubles as the worklist.
 public class NFAToDFAConverter {
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private int maxStates = UNLIMITED;
+    private boolean subsetNames = true;
+
+    public int getMaxStates() {
+        return maxStates;
+    }
+
+    // Stop generating new DEA states once this many have been created
+    public void setMaxStates(int maxStates) {
+        if (maxStates < 1) {
+            throw new IllegalArgumentException("maxStates must be at least 1");
+        }
+        this.maxStates = maxStates;
+    }
+
+    public boolean isSubsetNames() {
+        return subsetNames;
+    }
+
+    // Name DEA states after their subsets ("{q0,q1}") or just number them ("S0", "S1", ...)
+    public void setSubsetNames(boolean subsetNames) {
+        this.subsetNames = subsetNames;
+    }
+
+    public Result convert(Automaton nfa) {
+        CompiledNfa compiled = nfa.getCompiledNfa();
+        SymbolTable symbols = compiled.getSymbolTable();
+        int symbolCount = symbols.size();
+
+        Automaton dfa = new Automaton();
+        dfa.setNFA(false);
+        if (nfa.getInitialState() == null) {
+            return new Result(dfa, true);
+        }
+
+        StateSetTable subsets = new StateSetTable(compiled.getWordCount());
+        long[] current = compiled.newStateSet();
+        long[] next = compiled.newStateSet();
+        compiled.copyInitialStates(current);
+        subsets.intern(current);
+
+        int[] table = new int[16 * Math.max(1, symbolCount)];
+        boolean complete = true;
+
+        for (int id = 0; id < subsets.size(); id++) {
+            // Large conversions run in the background and can be cancelled
+            if ((id & 1023) == 0 && Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Conversion cancelled");
+            }
+            subsets.copyTo(id, current);
+            if ((id + 1) * symbolCount > table.length) {
+                table = Arrays.copyOf(table, Math.max(table.length * 2, (id + 1) * symbolCount));
+            }
+
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                int target = -1;
+                if (compiled.step(current, symbol, next)) {
+                    target = subsets.indexOf(next);
+                    if (target == StateSetTable.NOT_FOUND) {
+                        if (subsets.size() < maxStates) {
+                            target = subsets.intern(next);
+                        } else {
+                            complete = false;
+                        }
+                    }
+                }
+                table[id * symbolCount + symbol] = target;
+            }
+        }
+
+        return new Result(buildAutomaton(dfa, compiled, subsets, table), complete);
+    }
+
+    private Automaton buildAutomaton(Automaton dfa, CompiledNfa compiled, StateSetTable subsets, int[] table) {
+        int count = subsets.size();
+        long[] set = compiled.newStateSet();
+
+        State[] states = new State[count];
+        for (int id = 0; id < count; id++) {
+            subsets.copyTo(id, set);
+            Point pos = AutomatonTables.gridPosition(id, count);
+            states[id] = new State(stateName(compiled, id, set), pos.x, pos.y);
+            states[id].setFinal(compiled.isAccepting(set));
+            dfa.addState(states[id]);
+        }
+        dfa.setInitialState(states[0]);
+
+        AutomatonTables.addTransitions(dfa, states, table, compiled.getSymbolTable());
+
+        return dfa;
+    }
+
+    private String stateName(CompiledNfa compiled, int id, long[] set) {
+        if (!subsetNames) {
+            return "S" + id;
+        }
+        List<String> ids = new ArrayList<>();
+        for (int w = 0; w < set.length; w++) {
+            long bits = set[w];
+            while (bits != 0) {
+                int state = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                ids.add(compiled.getState(state).getId());
+            }
+        }
+        // q2 before q10
+        ids.sort(Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()));
+        return "{" + String.join(",", ids) + "}";
+    }
+
+    public static class Result {
+        private final Automaton dfa;
+        private final boolean complete;
+
+        public Result(Automaton dfa, boolean complete) {
+            this.dfa = dfa;
+            this.complete = complete;
+        }
+
+        public Automaton getDfa() {
+            return dfa;
+        }
+
+        // False if the state cap was hit; transitions into the missing states are left out
+        public boolean isComplete() {
+            return complete;
+        }
+
+        public int getStateCount() {
+            return dfa.getStateCount();
+        }
+    }
 }
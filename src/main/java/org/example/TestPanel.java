@@ -1,10 +1,19 @@
 package org.example;
 
+import org.example.core.AcceptanceSession;
 import org.example.core.Automaton;
+import org.example.core.BatchResult;
 
 import javax.swing.*;
 import java.awt.*;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import org.example.core.State;
 
 public class TestPanel extends JPanel {
@@ -12,6 +21,16 @@ public class TestPanel extends JPanel {
     private JTextField inputField;
     private JLabel resultLabel;
     private JTextArea stepsArea;
+    // Runs on a snapshot of the automaton; a new test cancels the previous one
+    private BackgroundTask<?> currentTask;
+    // Reused while the automaton is unchanged, so its lazily built DEA stays warm between runs
+    private Automaton snapshot;
+    private int snapshotVersion;
+
+    // Characters fed to the simulation between progress updates and cancellation checks
+    private static final int CHUNK_SIZE = 1 << 16;
+    // Strings tested (in parallel) between progress updates and cancellation checks
+    private static final int LIST_SLICE = 1 << 14;
 
     public TestPanel(Automaton automaton) {
         this.automaton = automaton;
@@ -39,6 +58,16 @@ public class TestPanel extends JPanel {
         testButton.addActionListener(e -> testString());
         inputPanel.add(testButton);
 
+        JButton listButton = new JButton("Liste testen");
+        listButton.setToolTipText("Viele Zeichenfolgen auf einmal testen (eine pro Zeile)");
+        listButton.addActionListener(e -> testList());
+        inputPanel.add(listButton);
+
+        JButton examplesButton = new JButton("Beispielwörter");
+        examplesButton.setToolTipText("Die kürzesten akzeptierten Zeichenfolgen anzeigen");
+        examplesButton.addActionListener(e -> showExampleWords());
+        inputPanel.add(examplesButton);
+
         resultLabel = new JLabel("");
         resultLabel.setFont(new Font("Arial", Font.BOLD, 14));
         inputPanel.add(resultLabel);
@@ -74,21 +103,37 @@ public class TestPanel extends JPanel {
             return;
         }
 
-        // Test the string
-        boolean accepted = automaton.simulate(input);
-
-        // Get step-by-step execution
-        List<State> steps = automaton.simulateSteps(input);
+        Automaton snapshot = snapshot();
+        startTask("Simulation", progress -> {
+            // Acceptance in chunks, so long inputs report progress and can be cancelled
+            AcceptanceSession session = snapshot.newSession();
+            for (int from = 0; from < input.length() && !session.isDead(); from += CHUNK_SIZE) {
+                progress.checkCancelled();
+                progress.set(0.5 * from / input.length());
+                session.feed(input.subSequence(from, Math.min(input.length(), from + CHUNK_SIZE)));
+            }
+            boolean accepted = session.isAccepting();
 
-        // Update result label
-        if (accepted) {
-            resultLabel.setText("✓ AKZEPTIERT");
-            resultLabel.setForeground(new Color(0, 150, 0));
-        } else {
-            resultLabel.setText("✗ ABGELEHNT");
-            resultLabel.setForeground(Color.RED);
-        }
+            // Get step-by-step execution
+            progress.checkCancelled();
+            progress.set(0.5);
+            List<State> steps = snapshot.simulateSteps(input);
+            progress.checkCancelled();
+            return new TestResult(accepted, formatSteps(input, steps));
+        }, result -> {
+            // Update result label
+            if (result.accepted) {
+                resultLabel.setText("✓ AKZEPTIERT");
+                resultLabel.setForeground(new Color(0, 150, 0));
+            } else {
+                resultLabel.setText("✗ ABGELEHNT");
+                resultLabel.setForeground(Color.RED);
+            }
+            stepsArea.setText(result.steps);
+        });
+    }
 
+    private static String formatSteps(String input, List<State> steps) {
         // Show steps
         StringBuilder stepsText = new StringBuilder();
         if (steps.isEmpty()) {
@@ -118,7 +163,180 @@ public class TestPanel extends JPanel {
             stepsText.append(finalState.getId());
             stepsText.append(finalState.isFinal() ? " (akzeptierend)" : " (nicht akzeptierend)");
         }
+        return stepsText.toString();
+    }
+
+    private Automaton snapshot() {
+        // A cancelled task may still be running on the old snapshot, which is not thread-safe
+        if (currentTask != null && currentTask.isRunning()) {
+            currentTask.cancel();
+            snapshot = null;
+        }
+        if (snapshot == null || snapshotVersion != automaton.getVersion()) {
+            snapshot = automaton.copy();
+            snapshotVersion = automaton.getVersion();
+        }
+        return snapshot;
+    }
+
+    // Runs the work on a snapshot in the background; the label shows that it is running
+    private <T> void startTask(String title, Function<BackgroundTask.Progress, T> work, Consumer<T> onSuccess) {
+        if (currentTask != null) {
+            currentTask.cancel();
+        }
+        resultLabel.setText("Läuft...");
+        resultLabel.setForeground(Color.DARK_GRAY);
+        currentTask = BackgroundTask.start(this, title, work, onSuccess, () -> {
+            resultLabel.setText("Abgebrochen");
+            resultLabel.setForeground(Color.DARK_GRAY);
+        });
+    }
+
+    private void testList() {
+        if (automaton.getInitialState() == null) {
+            JOptionPane.showMessageDialog(
+                    this,
+                    "Bitte setzen Sie zuerst einen Anfangszustand!",
+                    "Kein Anfangszustand",
+                    JOptionPane.WARNING_MESSAGE
+            );
+            return;
+        }
+
+        // One string per line, an empty line is the empty string
+        JTextArea listArea = new JTextArea(15, 30);
+        listArea.setFont(new Font("Courier", Font.PLAIN, 12));
+
+        JButton loadButton = new JButton("Aus Datei laden...");
+        loadButton.addActionListener(e -> {
+            JFileChooser chooser = new JFileChooser();
+            if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+                try {
+                    listArea.setText(Files.readString(chooser.getSelectedFile().toPath(), StandardCharsets.UTF_8));
+                } catch (IOException ex) {
+                    JOptionPane.showMessageDialog(this, "Datei konnte nicht gelesen werden:\n" + ex.getMessage(),
+                            "Fehler", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        });
+
+        JPanel listPanel = new JPanel(new BorderLayout(5, 5));
+        listPanel.add(new JLabel("Eine Zeichenfolge pro Zeile:"), BorderLayout.NORTH);
+        listPanel.add(new JScrollPane(listArea), BorderLayout.CENTER);
+        listPanel.add(loadButton, BorderLayout.SOUTH);
+
+        int option = JOptionPane.showConfirmDialog(
+                this,
+                listPanel,
+                "Liste testen",
+                JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.PLAIN_MESSAGE
+        );
+        if (option != JOptionPane.OK_OPTION) {
+            return;
+        }
 
-        stepsArea.setText(stepsText.toString());
+        String text = listArea.getText();
+        if (text.endsWith("\n")) {
+            text = text.substring(0, text.length() - 1);
+        }
+        List<String> inputs = Arrays.asList(text.split("\r?\n", -1));
+
+        Automaton snapshot = snapshot();
+        startTask("Liste testen", progress -> simulateInSlices(snapshot, inputs, progress),
+                result -> showListResult(inputs, result));
+    }
+
+    private static BatchResult simulateInSlices(Automaton snapshot, List<String> inputs,
+                                                BackgroundTask.Progress progress) {
+        BitSet accepted = new BitSet(inputs.size());
+        long totalChars = 0;
+        long elapsedNanos = 0;
+        for (int from = 0; from < inputs.size(); from += LIST_SLICE) {
+            progress.checkCancelled();
+            progress.set((double) from / inputs.size());
+            BatchResult slice = snapshot.simulateAll(inputs.subList(from, Math.min(inputs.size(), from + LIST_SLICE)));
+            BitSet sliceAccepted = slice.getAccepted();
+            for (int i = sliceAccepted.nextSetBit(0); i >= 0; i = sliceAccepted.nextSetBit(i + 1)) {
+                accepted.set(from + i);
+            }
+            totalChars += slice.getTotalChars();
+            elapsedNanos += slice.getElapsedNanos();
+        }
+        return new BatchResult(accepted, inputs.size(), totalChars, elapsedNanos);
+    }
+
+    private void showExampleWords() {
+        int maxWords = 20;
+
+        if (automaton.getInitialState() == null) {
+            JOptionPane.showMessageDialog(
+                    this,
+                    "Bitte setzen Sie zuerst einen Anfangszustand!",
+                    "Kein Anfangszustand",
+                    JOptionPane.WARNING_MESSAGE
+            );
+            return;
+        }
+
+        Automaton snapshot = snapshot();
+        startTask("Beispielwörter", progress -> {
+            List<String> words = snapshot.getShortestAcceptedWords(maxWords);
+
+            StringBuilder text = new StringBuilder();
+            if (words.isEmpty()) {
+                text.append("Der Automat akzeptiert keine Zeichenfolge (leere Sprache).");
+            } else {
+                text.append(snapshot.isLanguageFinite() ? "Endliche Sprache" : "Unendliche Sprache");
+                text.append(", kürzeste akzeptierte Zeichenfolgen:");
+                for (String word : words) {
+                    text.append("\n");
+                    text.append(word.isEmpty() ? "(Leere Zeichenfolge)" : word);
+                }
+                if (words.size() == maxWords) {
+                    text.append("\n...");
+                }
+            }
+            return text.toString();
+        }, text -> {
+            resultLabel.setText("");
+            stepsArea.setText(text);
+            stepsArea.setCaretPosition(0);
+        });
+    }
+
+    private void showListResult(List<String> inputs, BatchResult result) {
+        int maxLines = 1000;
+
+        resultLabel.setText(result.getAcceptedCount() + " / " + result.size() + " AKZEPTIERT");
+        resultLabel.setForeground(result.getRejectedCount() == 0 ? new Color(0, 150, 0) : Color.DARK_GRAY);
+
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%d akzeptiert, %d abgelehnt in %.1f ms (%.0f Zeichenfolgen/s)",
+                result.getAcceptedCount(), result.getRejectedCount(),
+                result.getElapsedNanos() / 1e6, result.getStringsPerSecond()));
+        text.append("\n");
+
+        for (int i = 0; i < inputs.size() && i < maxLines; i++) {
+            text.append("\n");
+            text.append(result.isAccepted(i) ? "✓ " : "✗ ");
+            text.append(inputs.get(i).isEmpty() ? "(Leere Zeichenfolge)" : inputs.get(i));
+        }
+        if (inputs.size() > maxLines) {
+            text.append("\n... (").append(inputs.size() - maxLines).append(" weitere)");
+        }
+
+        stepsArea.setText(text.toString());
+        stepsArea.setCaretPosition(0);
+    }
+
+    private static final class TestResult {
+        final boolean accepted;
+        final String steps;
+
+        TestResult(boolean accepted, String steps) {
+            this.accepted = accepted;
+            this.steps = steps;
+        }
     }
-}
\ No newline at end of file
+}
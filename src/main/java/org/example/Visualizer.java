@@ -1,15 +1,23 @@
 package org.example;
 
 import org.example.core.Automaton;
+import org.example.core.ForceDirectedLayout;
+import org.example.core.GraphLayout;
+import org.example.core.LayeredLayout;
+import org.example.core.RegexCompiler;
 
 import javax.swing.*;
 import java.awt.*;
 
 public class Visualizer extends JFrame {
+    // Upper bound for the subset construction, which can otherwise blow up exponentially
+    private static final int MAX_DFA_STATES = 10_000;
+
     private Automaton automaton;
     private CanvasPanel canvas;
     private ControlPanel controlPanel;
     private TestPanel testPanel;
+    private LayoutWorker layoutWorker;
 
     public Visualizer() {
         setTitle("AutomatenTutor");
@@ -88,6 +96,54 @@ public class Visualizer extends JFrame {
         });
         menuBar.add(clearMenu);
 
+        // Automaton menu
+        JMenu automatonMenu = new JMenu("Automat");
+
+        JMenuItem regexItem = new JMenuItem("Aus regulärem Ausdruck...");
+        regexItem.addActionListener(e -> createFromRegex());
+        automatonMenu.add(regexItem);
+
+        JMenuItem convertItem = new JMenuItem("In DEA umwandeln");
+        convertItem.addActionListener(e -> convertToDfa());
+        automatonMenu.add(convertItem);
+
+        JMenuItem validateItem = new JMenuItem("Automat prüfen");
+        validateItem.addActionListener(e -> controlPanel.validateAutomaton());
+        automatonMenu.add(validateItem);
+
+        automatonMenu.addSeparator();
+
+        JMenuItem forceLayoutItem = new JMenuItem("Automatisch anordnen (kräftebasiert)");
+        forceLayoutItem.addActionListener(e -> startLayout(new ForceDirectedLayout(automaton)));
+        automatonMenu.add(forceLayoutItem);
+
+        JMenuItem layeredLayoutItem = new JMenuItem("Automatisch anordnen (in Schichten)");
+        layeredLayoutItem.addActionListener(e -> startLayout(new LayeredLayout(automaton)));
+        automatonMenu.add(layeredLayoutItem);
+
+        menuBar.add(automatonMenu);
+
+        // View menu
+        JMenu viewMenu = new JMenu("Ansicht");
+
+        JMenuItem zoomInItem = new JMenuItem("Vergrößern");
+        zoomInItem.addActionListener(e -> canvas.zoomIn());
+        viewMenu.add(zoomInItem);
+
+        JMenuItem zoomOutItem = new JMenuItem("Verkleinern");
+        zoomOutItem.addActionListener(e -> canvas.zoomOut());
+        viewMenu.add(zoomOutItem);
+
+        JMenuItem fitItem = new JMenuItem("Alles anzeigen");
+        fitItem.addActionListener(e -> canvas.fitToContent());
+        viewMenu.add(fitItem);
+
+        JMenuItem resetItem = new JMenuItem("Originalgröße");
+        resetItem.addActionListener(e -> canvas.resetView());
+        viewMenu.add(resetItem);
+
+        menuBar.add(viewMenu);
+
         // Help menu
         JMenu helpMenu = new JMenu("Hilfe");
 
@@ -116,6 +172,74 @@ public class Visualizer extends JFrame {
         return menuBar;
     }
 
+    private void startLayout(GraphLayout layout) {
+        if (layoutWorker != null) {
+            layoutWorker.cancel(true);
+        }
+        layoutWorker = new LayoutWorker(layout, automaton, canvas);
+        layoutWorker.execute();
+    }
+
+    // Powerset construction on a snapshot in the background; the DEA then replaces the automaton
+    private void convertToDfa() {
+        if (automaton.getInitialState() == null) {
+            JOptionPane.showMessageDialog(this, "Bitte setzen Sie zuerst einen Anfangszustand!",
+                    "Kein Anfangszustand", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        int confirm = JOptionPane.showConfirmDialog(this,
+                "Den Automaten durch einen äquivalenten DEA ersetzen?",
+                "In DEA umwandeln", JOptionPane.YES_NO_OPTION);
+        if (confirm != JOptionPane.YES_OPTION) {
+            return;
+        }
+
+        Automaton snapshot = automaton.copy();
+        int version = automaton.getVersion();
+        NFAToDFAConverter converter = new NFAToDFAConverter();
+        converter.setMaxStates(MAX_DFA_STATES);
+        BackgroundTask.start(this, "Umwandlung", progress -> converter.convert(snapshot), result -> {
+            if (!result.isComplete()) {
+                JOptionPane.showMessageDialog(this,
+                        "Der DEA hätte mehr als " + MAX_DFA_STATES + " Zustände, die Umwandlung wurde abgebrochen.",
+                        "In DEA umwandeln", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            if (automaton.getVersion() != version) {
+                JOptionPane.showMessageDialog(this,
+                        "Der Automat wurde während der Umwandlung geändert, das Ergebnis wird verworfen.",
+                        "In DEA umwandeln", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            automaton.copyFrom(result.getDfa());
+            controlPanel.syncWithAutomaton();
+            canvas.fitToContent();
+            JOptionPane.showMessageDialog(this,
+                    "DEA mit " + result.getStateCount() + " Zuständen erzeugt.",
+                    "In DEA umwandeln", JOptionPane.INFORMATION_MESSAGE);
+        });
+    }
+
+    private void createFromRegex() {
+        String pattern = JOptionPane.showInputDialog(
+                this,
+                "Regulärer Ausdruck (| * + ? ( ) [a-z]):",
+                "Aus regulärem Ausdruck",
+                JOptionPane.PLAIN_MESSAGE
+        );
+        if (pattern == null) {
+            return;
+        }
+
+        try {
+            new RegexCompiler().compile(pattern, automaton);
+            controlPanel.syncWithAutomaton();
+            canvas.fitToContent();
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Ungültiger Ausdruck", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     private void showAboutDialog() {
         JOptionPane.showMessageDialog(
                 this,
@@ -150,6 +274,9 @@ public class Visualizer extends JFrame {
                         "6. Zustände verschieben:\n" +
                         "   - 'Auswählen/Bewegen' Modus wählen\n" +
                         "   - Zustände ziehen, um neu zu positionieren\n\n" +
+                        "7. Ansicht:\n" +
+                        "   - Mausrad zoomt, leere Fläche oder rechte Maustaste ziehen verschiebt\n" +
+                        "   - Menü 'Ansicht' > 'Alles anzeigen' für große Automaten\n\n" +
                         "Beispiel: Erstellen Sie einen DEA, der Zeichenfolgen\n" +
                         "mit einer geraden Anzahl von 1en über Alphabet {0,1} akzeptiert";
 
@@ -0,0 +1,123 @@
+package org.example.core;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Incremental run of an automaton: input is fed in chunks and the session only keeps the
+// current state (set), so memory does not depend on the input length.
+public abstract class AcceptanceSession {
+    private static final int CHUNK_SIZE = 8192;
+    // Files are mapped in segments so inputs larger than 2 GB work as well
+    private static final long SEGMENT_SIZE = 64L * 1024 * 1024;
+
+    private long position;
+
+    protected abstract void consume(char c);
+
+    protected abstract void consume(char[] chunk, int offset, int length);
+
+    protected abstract void consume(CharSequence chunk, int from, int to);
+
+    public abstract boolean isAccepting();
+
+    // True once no continuation of the input can be accepted because all paths are blocked
+    public abstract boolean isDead();
+
+    protected abstract void restart();
+
+    public final void feed(char c) {
+        position++;
+        if (!isDead()) {
+            consume(c);
+        }
+    }
+
+    public final void feed(CharSequence chunk) {
+        position += chunk.length();
+        if (!isDead()) {
+            consume(chunk, 0, chunk.length());
+        }
+    }
+
+    public final void feed(char[] chunk, int offset, int length) {
+        position += length;
+        if (!isDead()) {
+            consume(chunk, offset, length);
+        }
+    }
+
+    // Reads the whole reader in fixed-size chunks, stops early once the session is dead
+    public final void feed(Reader reader) throws IOException {
+        char[] buffer = new char[CHUNK_SIZE];
+        int read;
+        while (!isDead() && (read = reader.read(buffer)) != -1) {
+            feed(buffer, 0, read);
+        }
+    }
+
+    // Decodes a memory-mapped file chunk by chunk, the file is never loaded as a whole
+    public final void feed(Path file, Charset charset) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            CharsetDecoder decoder = charset.newDecoder();
+            CharBuffer chars = CharBuffer.allocate(CHUNK_SIZE);
+            long size = channel.size();
+            long pos = 0;
+
+            while (pos < size && !isDead()) {
+                long length = Math.min(SEGMENT_SIZE, size - pos);
+                boolean last = pos + length == size;
+                MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, pos, length);
+                decode(decoder, bytes, chars, last);
+                // Bytes of a character cut off at the segment end are mapped again with the next segment
+                pos += length - bytes.remaining();
+            }
+
+            // A session that died early needs no more input. Otherwise end the input for the
+            // decoder (also when the file was empty) before flushing it.
+            if (!isDead()) {
+                decode(decoder, ByteBuffer.allocate(0), chars, true);
+                decoder.flush(chars);
+                drain(chars);
+            }
+        }
+    }
+
+    private void decode(CharsetDecoder decoder, ByteBuffer bytes, CharBuffer chars, boolean last)
+            throws IOException {
+        while (!isDead()) {
+            CoderResult result = decoder.decode(bytes, chars, last);
+            drain(chars);
+            if (result.isError()) {
+                result.throwException();
+            }
+            if (result.isUnderflow()) {
+                return;
+            }
+        }
+    }
+
+    private void drain(CharBuffer chars) {
+        chars.flip();
+        feed(chars.array(), chars.arrayOffset() + chars.position(), chars.remaining());
+        chars.clear();
+    }
+
+    // Number of characters fed so far
+    public final long getPosition() {
+        return position;
+    }
+
+    public final void reset() {
+        position = 0;
+        restart();
+    }
+}
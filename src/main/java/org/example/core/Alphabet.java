@@ -0,0 +1,103 @@
+package org.example.core;
+
+import java.util.*;
+
+// Input symbols of an automaton, numbered densely in the order they were first used.
+// Ids are stable until clear(), so transitions and compiled snapshots can compare ints.
+// A symbol keeps its id when its last transition goes away; the use counts tell which
+// symbols are still on some transition.
+public final class Alphabet {
+    private final List<String> symbols;
+    private final Map<String, Integer> ids;
+    private SymbolTable symbolTable;
+    // Number of transitions of the automaton that carry each symbol
+    private int[] uses = new int[16];
+    private int usedCount;
+
+    public Alphabet() {
+        this.symbols = new ArrayList<>();
+        this.ids = new HashMap<>();
+    }
+
+    public int intern(String symbol) {
+        Integer id = ids.get(symbol);
+        if (id != null) {
+            return id;
+        }
+        int newId = symbols.size();
+        symbols.add(symbol);
+        ids.put(symbol, newId);
+        symbolTable = null;
+        return newId;
+    }
+
+    void retain(int id) {
+        if (id >= uses.length) {
+            uses = Arrays.copyOf(uses, Math.max(uses.length * 2, id + 1));
+        }
+        if (uses[id]++ == 0) {
+            usedCount++;
+        }
+    }
+
+    void release(int id) {
+        if (--uses[id] == 0) {
+            usedCount--;
+        }
+    }
+
+    // True if some transition of the automaton carries the symbol
+    public boolean isUsed(int id) {
+        return id < uses.length && uses[id] > 0;
+    }
+
+    public int getUsedCount() {
+        return usedCount;
+    }
+
+    public int idOf(String symbol) {
+        Integer id = ids.get(symbol);
+        return id == null ? SymbolTable.NO_SYMBOL : id;
+    }
+
+    public boolean contains(String symbol) {
+        return ids.containsKey(symbol);
+    }
+
+    public int size() {
+        return symbols.size();
+    }
+
+    public boolean isEmpty() {
+        return symbols.isEmpty();
+    }
+
+    public String getSymbol(int id) {
+        return symbols.get(id);
+    }
+
+    public List<String> getSymbols() {
+        return Collections.unmodifiableList(symbols);
+    }
+
+    // Immutable copy with the same ids, for compiled snapshots
+    public SymbolTable toSymbolTable() {
+        if (symbolTable == null) {
+            symbolTable = new SymbolTable(symbols);
+        }
+        return symbolTable;
+    }
+
+    public void clear() {
+        symbols.clear();
+        ids.clear();
+        symbolTable = null;
+        Arrays.fill(uses, 0);
+        usedCount = 0;
+    }
+
+    @Override
+    public String toString() {
+        return symbols.toString();
+    }
+}
@@ -1,18 +1,50 @@
 package org.example.core;
 
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.*;
 
 public class Automaton {
+    public static final int DEFAULT_LAZY_DFA_STATES = 10_000;
+
+    // How NEAs are simulated: set-by-set over bitsets, or through an on-the-fly DEA cache
+    public enum NfaSimulation {
+        BITSET, LAZY_DFA
+    }
+
     private Set<State> states;
     private Set<Transition> transitions;
-    private Set<String> alphabet;
+    // Per-state index over the transitions, kept in sync by addTransition/removeTransition/removeState
+    private Map<State, Adjacency> adjacency;
+    private Alphabet alphabet;
+    // Positions of the states for hit tests, updated by State.setPosition through the owner link
+    private StateGrid grid;
     private State initialState;
     private boolean isNFA;
+    private int epsilonTransitions;
+    // Counts added/removed states and transitions, so views can tell when their caches are stale
+    private int modCount;
+    // Counts every change that can alter the language: the ones above plus final and initial
+    // states and the NEA flag, so a result computed on a copy can be checked before it is used
+    private int version;
+    private CompiledDfa compiledDfa;
+    private CompiledNfa compiledNfa;
+    private CompiledNfa engineNfa;
+    private LazyDfa lazyDfa;
+    private LanguageQueries languageQueries;
+    private NfaSimulation nfaSimulation = NfaSimulation.LAZY_DFA;
+    private int lazyDfaStates = DEFAULT_LAZY_DFA_STATES;
 
     public Automaton() {
         this.states = new HashSet<>();
         this.transitions = new HashSet<>();
-        this.alphabet = new HashSet<>();
+        this.adjacency = new HashMap<>();
+        this.alphabet = new Alphabet();
+        this.grid = new StateGrid();
         this.initialState = null;
         this.isNFA = false; // Default to DEA
     }
@@ -22,34 +54,145 @@ public class Automaton {
     }
 
     public void setNFA(boolean nfa) {
-        isNFA = nfa;
+        if (isNFA != nfa) {
+            isNFA = nfa;
+            // Switches between the DEA and NEA semantics: the compiled tables stay valid,
+            // only what was built on the engine has to go
+            version++;
+            engineNfa = null;
+            languageQueries = null;
+        }
+    }
+
+    public boolean hasEpsilonTransitions() {
+        return epsilonTransitions > 0;
+    }
+
+    // ε-transitions can only be simulated set-by-set, so they force the NEA engine even in DEA mode
+    private boolean usesNfaEngine() {
+        return isNFA || epsilonTransitions > 0;
+    }
+
+    public NfaSimulation getNfaSimulation() {
+        return nfaSimulation;
+    }
+
+    public void setNfaSimulation(NfaSimulation nfaSimulation) {
+        this.nfaSimulation = nfaSimulation;
+    }
+
+    public int getLazyDfaStates() {
+        return lazyDfaStates;
+    }
+
+    // Upper bound for the number of cached DEA states in LAZY_DFA mode
+    public void setLazyDfaStates(int lazyDfaStates) {
+        this.lazyDfaStates = lazyDfaStates;
+        lazyDfa = null;
     }
 
     public void addState(State state) {
-        states.add(state);
+        if (states.add(state)) {
+            grid.add(state);
+        }
+        state.setOwner(this);
+        modCount++;
+        invalidateCompiled();
         if (state.isInitial()) {
             setInitialState(state);
         }
     }
 
     public void removeState(State state) {
-        states.remove(state);
-        transitions.removeIf(t -> t.getFromState().equals(state) ||
-                t.getToState().equals(state));
+        if (states.remove(state)) {
+            grid.remove(state);
+        }
+        Adjacency node = adjacency.remove(state);
+        if (node != null) {
+            for (Transition t : node.outgoing) {
+                transitions.remove(t);
+                countRemoved(t);
+                if (!t.getToState().equals(state)) {
+                    adjacency.get(t.getToState()).unindexIncoming(t);
+                }
+            }
+            for (Transition t : node.incoming) {
+                if (transitions.remove(t)) {
+                    countRemoved(t);
+                    adjacency.get(t.getFromState()).unindexOutgoing(t);
+                }
+            }
+        }
         if (state.equals(initialState)) {
             initialState = null;
         }
+        if (state.getOwner() == this) {
+            state.setOwner(null);
+        }
+        modCount++;
+        invalidateCompiled();
     }
 
     public void addTransition(Transition transition) {
-        transitions.add(transition);
-        for (String symbol : transition.getIndividualSymbols()) {
-            alphabet.add(symbol);
+        transition.bindSymbols(alphabet);
+        if (transitions.add(transition)) {
+            adjacencyOf(transition.getFromState()).indexOutgoing(transition);
+            adjacencyOf(transition.getToState()).indexIncoming(transition);
+            if (transition.isEpsilon()) {
+                epsilonTransitions++;
+            }
+            for (int symbol : transition.getSymbolIds()) {
+                alphabet.retain(symbol);
+            }
+            modCount++;
         }
+        invalidateCompiled();
     }
 
     public void removeTransition(Transition transition) {
-        transitions.remove(transition);
+        if (transitions.remove(transition)) {
+            // The removed object may only be equal to the indexed one
+            Transition indexed = findIndexed(transition);
+            adjacency.get(indexed.getFromState()).unindexOutgoing(indexed);
+            adjacency.get(indexed.getToState()).unindexIncoming(indexed);
+            countRemoved(indexed);
+            modCount++;
+        }
+        invalidateCompiled();
+    }
+
+    // Changes the label of a transition, re-indexing it under the new one. If an equal
+    // transition with that label exists already, the two merge.
+    public void setTransitionSymbol(Transition transition, String symbol) {
+        if (!transitions.contains(transition)) {
+            transition.relabel(symbol);
+            return;
+        }
+        removeTransition(transition);
+        transition.relabel(symbol);
+        addTransition(transition);
+    }
+
+    private void countRemoved(Transition transition) {
+        if (transition.isEpsilon()) {
+            epsilonTransitions--;
+        }
+        for (int symbol : transition.getSymbolIds()) {
+            alphabet.release(symbol);
+        }
+    }
+
+    private Adjacency adjacencyOf(State state) {
+        return adjacency.computeIfAbsent(state, k -> new Adjacency());
+    }
+
+    private Transition findIndexed(Transition transition) {
+        for (Transition t : adjacency.get(transition.getFromState()).outgoing) {
+            if (t.equals(transition)) {
+                return t;
+            }
+        }
+        return transition;
     }
 
     public Set<State> getStates() {
@@ -60,7 +203,7 @@ public class Automaton {
         return transitions;
     }
 
-    public Set<String> getAlphabet() {
+    public Alphabet getAlphabet() {
         return alphabet;
     }
 
@@ -76,46 +219,147 @@ public class Automaton {
         if (state != null) {
             state.setInitial(true);
         }
+        invalidateCompiled();
+    }
+
+    // Table-driven snapshot used by the DEA simulation, rebuilt lazily after any change.
+    // ε-transitions are not part of it.
+    public CompiledDfa getCompiledDfa() {
+        if (compiledDfa == null) {
+            compiledDfa = CompiledDfa.compile(this);
+        }
+        return compiledDfa;
+    }
+
+    // Bitset snapshot used by the NEA simulation, rebuilt lazily after any change
+    public CompiledNfa getCompiledNfa() {
+        if (compiledNfa == null) {
+            compiledNfa = CompiledNfa.compile(this);
+        }
+        return compiledNfa;
+    }
+
+    // On-the-fly DEA used by the NEA simulation in LAZY_DFA mode, kept across calls
+    public LazyDfa getLazyDfa() {
+        if (lazyDfa == null) {
+            lazyDfa = new LazyDfa(getCompiledNfa(), lazyDfaStates);
+        }
+        return lazyDfa;
     }
 
+    // The engine simulate() uses, in NEA form for the algorithms that work on state sets: the
+    // CompiledNfa in NEA mode, the CompiledDfa (first transition wins) in DEA mode
+    CompiledNfa getEngineNfa() {
+        if (engineNfa == null) {
+            engineNfa = usesNfaEngine() ? getCompiledNfa() : CompiledNfa.of(getCompiledDfa());
+        }
+        return engineNfa;
+    }
+
+    // Emptiness, finiteness and example words over the compiled graph, rebuilt lazily after any
+    // change. They follow the same engine as simulate(), so listed words are accepted by it.
+    public LanguageQueries getLanguageQueries() {
+        if (languageQueries == null) {
+            languageQueries = new LanguageQueries(getEngineNfa());
+        }
+        return languageQueries;
+    }
+
+    public boolean isLanguageEmpty() {
+        return getLanguageQueries().isEmpty();
+    }
+
+    public boolean isLanguageFinite() {
+        return getLanguageQueries().isFinite();
+    }
+
+    // Shortest accepted word (lexicographically first among those), null if nothing is accepted
+    public String getShortestAcceptedWord() {
+        List<String> words = getLanguageQueries().getShortestWords(1);
+        return words.isEmpty() ? null : words.get(0);
+    }
+
+    // The first 'count' accepted words in shortlex order, fewer if the language is smaller
+    public List<String> getShortestAcceptedWords(int count) {
+        return getLanguageQueries().getShortestWords(count);
+    }
+
+    void invalidateCompiled() {
+        version++;
+        compiledDfa = null;
+        compiledNfa = null;
+        engineNfa = null;
+        lazyDfa = null;
+        languageQueries = null;
+    }
+
+    // The state whose circle contains the point (the closest one if circles overlap)
     public State getStateAt(int x, int y) {
-        for (State state : states) {
-            if (state.contains(x, y)) {
-                return state;
+        List<State> candidates = new ArrayList<>();
+        grid.collect(x - State.RADIUS, y - State.RADIUS, x + State.RADIUS, y + State.RADIUS, candidates);
+
+        State closest = null;
+        long closestDistance = Long.MAX_VALUE;
+        for (State state : candidates) {
+            long distance = state.distanceSquared(x, y);
+            if (distance <= (long) State.RADIUS * State.RADIUS && distance < closestDistance) {
+                closest = state;
+                closestDistance = distance;
             }
         }
-        return null;
+        return closest;
+    }
+
+    // Candidates for states within 'distance' of the segment; callers do the exact test
+    public List<State> getStatesNearSegment(int x1, int y1, int x2, int y2, int distance) {
+        List<State> result = new ArrayList<>();
+        grid.collectNearSegment(x1, y1, x2, y2, distance, result);
+        return result;
+    }
+
+    // Candidates for states whose centers lie in the area; callers do the exact test
+    public List<State> getStatesIn(Rectangle area) {
+        List<State> result = new ArrayList<>();
+        grid.collect(area, result);
+        return result;
+    }
+
+    void stateMoved(State state, int oldX, int oldY) {
+        grid.move(state, oldX, oldY);
     }
 
     // Get single transition (for DEA)
     public Transition getTransition(State from, String symbol) {
-        for (Transition t : transitions) {
-            if (t.getFromState().equals(from) && t.acceptsSymbol(symbol)) {
-                return t;
-            }
-        }
-        return null;
+        List<Transition> candidates = getAllTransitions(from, symbol);
+        return candidates.isEmpty() ? null : candidates.get(0);
     }
 
     // Get all possible transitions for a symbol (for NEA)
     public List<Transition> getAllTransitions(State from, String symbol) {
-        List<Transition> result = new ArrayList<>();
-        for (Transition t : transitions) {
-            if (t.getFromState().equals(from) && t.acceptsSymbol(symbol)) {
-                result.add(t);
-            }
+        Adjacency node = adjacency.get(from);
+        int symbolId = alphabet.idOf(symbol);
+        if (node == null || symbolId == SymbolTable.NO_SYMBOL || symbolId >= node.bySymbol.size()
+                || node.bySymbol.get(symbolId) == null) {
+            return Collections.emptyList();
         }
-        return result;
+        return Collections.unmodifiableList(node.bySymbol.get(symbolId));
     }
 
     public List<Transition> getTransitionsFrom(State state) {
-        List<Transition> result = new ArrayList<>();
-        for (Transition t : transitions) {
-            if (t.getFromState().equals(state)) {
-                result.add(t);
-            }
-        }
-        return result;
+        Adjacency node = adjacency.get(state);
+        return node == null ? Collections.emptyList() : Collections.unmodifiableList(node.outgoing);
+    }
+
+    public List<Transition> getTransitionsTo(State state) {
+        Adjacency node = adjacency.get(state);
+        return node == null ? Collections.emptyList() : Collections.unmodifiableList(node.incoming);
+    }
+
+    // Parallel transitions from one state to another, in the order they were added
+    public List<Transition> getTransitionsBetween(State from, State to) {
+        Adjacency node = adjacency.get(from);
+        List<Transition> result = node == null ? null : node.byTarget.get(to);
+        return result == null ? Collections.emptyList() : Collections.unmodifiableList(result);
     }
 
     // Main simulation method - handles both DEA and NEA
@@ -124,7 +368,7 @@ public class Automaton {
             return false;
         }
 
-        if (isNFA) {
+        if (usesNfaEngine()) {
             return simulateNFA(input);
         } else {
             return simulateDFA(input);
@@ -133,54 +377,58 @@ public class Automaton {
 
     // DEA simulation
     private boolean simulateDFA(String input) {
-        State currentState = initialState;
+        return getCompiledDfa().accepts(input);
+    }
 
-        for (char c : input.toCharArray()) {
-            String symbol = String.valueOf(c);
-            Transition transition = getTransition(currentState, symbol);
+    // NEA simulation
+    private boolean simulateNFA(String input) {
+        if (nfaSimulation == NfaSimulation.LAZY_DFA) {
+            return getLazyDfa().accepts(input);
+        }
+        // Set of current states (parallel execution) as bitsets
+        return getCompiledNfa().accepts(input);
+    }
 
-            if (transition == null) {
-                return false;
+    // Incremental simulation: feed input in chunks and ask isAccepting() at any point
+    public AcceptanceSession newSession() {
+        if (usesNfaEngine()) {
+            if (nfaSimulation == NfaSimulation.LAZY_DFA) {
+                return getLazyDfa().newSession();
             }
-            currentState = transition.getToState();
+            return getCompiledNfa().newSession();
         }
+        return getCompiledDfa().newSession();
+    }
 
-        return currentState.isFinal();
+    // Streams the input through the automaton in chunks instead of reading it into a String
+    public boolean simulate(Reader input) throws IOException {
+        AcceptanceSession session = newSession();
+        session.feed(input);
+        return session.isAccepting();
     }
 
-    // NEA simulation
-    private boolean simulateNFA(String input) {
-        // Set of current states (parallel execution)
-        Set<State> currentStates = new HashSet<>();
-        currentStates.add(initialState);
-
-        for (char c : input.toCharArray()) {
-            String symbol = String.valueOf(c);
-            Set<State> nextStates = new HashSet<>();
-
-            for (State state : currentStates) {
-                List<Transition> transitions = getAllTransitions(state, symbol);
-                for (Transition t : transitions) {
-                    nextStates.add(t.getToState());
-                }
-            }
+    // Streams a (possibly very large) file through the automaton via memory mapping
+    public boolean simulate(Path file, Charset charset) throws IOException {
+        AcceptanceSession session = newSession();
+        session.feed(file, charset);
+        return session.isAccepting();
+    }
 
-            // If no next states, all paths are blocked
-            if (nextStates.isEmpty()) {
-                return false;
+    // Tests all strings in parallel over a compiled snapshot of this automaton
+    public BatchResult simulateAll(Collection<String> inputs) {
+        if (initialState == null) {
+            long totalChars = 0;
+            for (String input : inputs) {
+                totalChars += input.length();
             }
-
-            currentStates = nextStates;
+            return new BatchResult(new BitSet(), inputs.size(), totalChars, 0);
         }
 
-        // Accept if any final state is reachable
-        for (State state : currentStates) {
-            if (state.isFinal()) {
-                return true;
-            }
+        if (usesNfaEngine()) {
+            return BatchTester.run(getCompiledNfa(), lazyDfaStates, inputs);
+        } else {
+            return BatchTester.run(getCompiledDfa(), inputs);
         }
-
-        return false;
     }
 
     public List<State> simulateSteps(String input) {
@@ -188,7 +436,7 @@ public class Automaton {
             return new ArrayList<>();
         }
 
-        if (isNFA) {
+        if (usesNfaEngine()) {
             return simulateStepsNFA(input);
         } else {
             return simulateStepsDFA(input);
@@ -198,84 +446,130 @@ public class Automaton {
     // DEA step-by-step
     private List<State> simulateStepsDFA(String input) {
         List<State> steps = new ArrayList<>();
-        State currentState = initialState;
-        steps.add(currentState);
+        CompiledDfa dfa = getCompiledDfa();
+        int currentState = dfa.getInitialState();
+        steps.add(dfa.getState(currentState));
 
-        for (char c : input.toCharArray()) {
-            String symbol = String.valueOf(c);
-            Transition transition = getTransition(currentState, symbol);
+        for (int i = 0; i < input.length(); i++) {
+            currentState = dfa.step(currentState, input.charAt(i));
 
-            if (transition == null) {
+            if (currentState == CompiledDfa.DEAD) {
                 break; // No valid transition
             }
 
-            currentState = transition.getToState();
-            steps.add(currentState);
+            steps.add(dfa.getState(currentState));
         }
 
         return steps;
     }
 
-    // NEA step-by-step
+    // NEA step-by-step: one run, reconstructed from the state sets after each character
     private List<State> simulateStepsNFA(String input) {
-        List<State> steps = new ArrayList<>();
+        return new NfaTracer(getCompiledNfa()).trace(input);
+    }
 
-        // Use BFS to find a path
-        Queue<List<State>> queue = new LinkedList<>();
-        List<State> initialPath = new ArrayList<>();
-        initialPath.add(initialState);
-        queue.offer(initialPath);
+    public void clear() {
+        for (State state : states) {
+            if (state.getOwner() == this) {
+                state.setOwner(null);
+            }
+        }
+        states.clear();
+        transitions.clear();
+        adjacency.clear();
+        grid.clear();
+        alphabet.clear();
+        epsilonTransitions = 0;
+        initialState = null;
+        modCount++;
+        invalidateCompiled();
+    }
 
-        String[] symbols = input.isEmpty() ? new String[0] : input.split("");
+    // Independent copy with new State and Transition objects, e.g. a snapshot for work on
+    // another thread while this automaton keeps being edited
+    public Automaton copy() {
+        Automaton copy = new Automaton();
+        copy.copyFrom(this);
+        return copy;
+    }
 
-        for (String symbol : symbols) {
-            Queue<List<State>> nextQueue = new LinkedList<>();
+    // Replaces the contents and settings of this automaton by a copy of the source
+    public void copyFrom(Automaton source) {
+        if (source == this) {
+            return;
+        }
+        clear();
+        isNFA = source.isNFA;
+        nfaSimulation = source.nfaSimulation;
+        lazyDfaStates = source.lazyDfaStates;
+
+        Map<State, State> copies = new HashMap<>();
+        for (State state : source.states) {
+            Point pos = state.getPosition();
+            State copy = new State(state.getId(), pos.x, pos.y);
+            copy.setFinal(state.isFinal());
+            copies.put(state, copy);
+            addState(copy);
+        }
+        for (Transition t : source.transitions) {
+            addTransition(new Transition(copies.get(t.getFromState()), copies.get(t.getToState()), t.getSymbol()));
+        }
+        if (source.initialState != null) {
+            setInitialState(copies.get(source.initialState));
+        }
+    }
 
-            while (!queue.isEmpty()) {
-                List<State> currentPath = queue.poll();
-                State lastState = currentPath.get(currentPath.size() - 1);
+    public int getModCount() {
+        return modCount;
+    }
 
-                List<Transition> transitions = getAllTransitions(lastState, symbol);
+    public int getVersion() {
+        return version;
+    }
 
-                for (Transition t : transitions) {
-                    List<State> newPath = new ArrayList<>(currentPath);
-                    newPath.add(t.getToState());
-                    nextQueue.offer(newPath);
-                }
-            }
+    public int getStateCount() {
+        return states.size();
+    }
 
-            if (nextQueue.isEmpty()) {
-                // No path continues, return what we have
-                return steps.isEmpty() ? initialPath : steps;
+    private static class Adjacency {
+        final List<Transition> outgoing = new ArrayList<>();
+        final List<Transition> incoming = new ArrayList<>();
+        final Map<State, List<Transition>> byTarget = new HashMap<>();
+        // Outgoing transitions by symbol id
+        final List<List<Transition>> bySymbol = new ArrayList<>();
+
+        void indexOutgoing(Transition t) {
+            outgoing.add(t);
+            byTarget.computeIfAbsent(t.getToState(), k -> new ArrayList<>(1)).add(t);
+            for (int symbol : t.getSymbolIds()) {
+                while (bySymbol.size() <= symbol) {
+                    bySymbol.add(null);
+                }
+                if (bySymbol.get(symbol) == null) {
+                    bySymbol.set(symbol, new ArrayList<>(1));
+                }
+                bySymbol.get(symbol).add(t);
             }
-
-            queue = nextQueue;
         }
 
-        // Return a successful path (preferably one ending in final state)
-        while (!queue.isEmpty()) {
-            List<State> path = queue.poll();
-            State lastState = path.get(path.size() - 1);
-            if (lastState.isFinal()) {
-                return path;
+        void unindexOutgoing(Transition t) {
+            outgoing.remove(t);
+            List<Transition> parallel = byTarget.get(t.getToState());
+            parallel.remove(t);
+            if (parallel.isEmpty()) {
+                byTarget.remove(t.getToState());
             }
-            // Save first path as fallback
-            if (steps.isEmpty()) {
-                steps = path;
+            for (int symbol : t.getSymbolIds()) {
+                bySymbol.get(symbol).remove(t);
             }
         }
 
-        return steps.isEmpty() ? initialPath : steps;
-    }
-
-    public void clear() {
-        states.clear();
-        transitions.clear();
-        alphabet.clear();
-        initialState = null;
-    }
+        void indexIncoming(Transition t) {
+            incoming.add(t);
+        }
 
-    public int getStateCount() {
-        return states.size();
+        void unindexIncoming(Transition t) {
+            incoming.remove(t);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,255 @@
+package org.example.core;
+
+import java.awt.Point;
+import java.util.*;
+
+// Random and structured automata plus matching word sets, for benchmarks and stress tests.
+// All randomness comes from the seed, so the same calls produce the same automata.
+public class AutomatonGenerator {
+    private static final String SYMBOLS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+
+    private final Random random;
+
+    public AutomatonGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    // "a", "b", ... for up to 62 single-character symbols
+    public static List<String> symbols(int alphabetSize) {
+        if (alphabetSize < 1 || alphabetSize > SYMBOLS.length()) {
+            throw new IllegalArgumentException("Alphabet size must be between 1 and " + SYMBOLS.length());
+        }
+        List<String> result = new ArrayList<>(alphabetSize);
+        for (int i = 0; i < alphabetSize; i++) {
+            result.add(String.valueOf(SYMBOLS.charAt(i)));
+        }
+        return result;
+    }
+
+    // Each (state, symbol) pair gets a transition with probability 'density'. Every state keeps
+    // at least one outgoing transition, so random walks never get stuck.
+    public Automaton randomDfa(int stateCount, int alphabetSize, double density, double finalRatio) {
+        List<String> symbols = symbols(alphabetSize);
+        Automaton automaton = new Automaton();
+        automaton.setNFA(false);
+        State[] states = addStates(automaton, stateCount, finalRatio);
+
+        for (State state : states) {
+            int forced = random.nextInt(alphabetSize);
+            for (int a = 0; a < alphabetSize; a++) {
+                if (a == forced || random.nextDouble() < density) {
+                    automaton.addTransition(new Transition(state, states[random.nextInt(stateCount)], symbols.get(a)));
+                }
+            }
+        }
+        return automaton;
+    }
+
+    // Each state gets 'outDegree' transitions with random symbols and targets (duplicates collapse)
+    public Automaton randomNfa(int stateCount, int alphabetSize, int outDegree, double finalRatio) {
+        List<String> symbols = symbols(alphabetSize);
+        Automaton automaton = new Automaton();
+        automaton.setNFA(true);
+        State[] states = addStates(automaton, stateCount, finalRatio);
+
+        for (State state : states) {
+            for (int i = 0; i < Math.max(1, outDegree); i++) {
+                String symbol = symbols.get(random.nextInt(alphabetSize));
+                automaton.addTransition(new Transition(state, states[random.nextInt(stateCount)], symbol));
+            }
+        }
+        return automaton;
+    }
+
+    // Words over {a, b} whose n-th symbol from the end is 'a': n + 1 NEA states, 2^n DEA states
+    public static Automaton nthSymbolFromEnd(int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be at least 1");
+        }
+        Automaton automaton = new Automaton();
+        automaton.setNFA(true);
+        State[] states = addStates(automaton, n + 1);
+        states[n].setFinal(true);
+
+        automaton.addTransition(new Transition(states[0], states[0], "a,b"));
+        automaton.addTransition(new Transition(states[0], states[1], "a"));
+        for (int i = 1; i < n; i++) {
+            automaton.addTransition(new Transition(states[i], states[i + 1], "a,b"));
+        }
+        return automaton;
+    }
+
+    // Words over {a, b} whose number of a's is divisible by the modulus (already minimal)
+    public static Automaton countModulo(int modulus) {
+        Automaton automaton = new Automaton();
+        automaton.setNFA(false);
+        State[] states = addStates(automaton, modulus);
+        states[0].setFinal(true);
+
+        for (int i = 0; i < modulus; i++) {
+            automaton.addTransition(new Transition(states[i], states[(i + 1) % modulus], "a"));
+            automaton.addTransition(new Transition(states[i], states[i], "b"));
+        }
+        return automaton;
+    }
+
+    // Binary numbers (most significant bit first) divisible by the divisor
+    public static Automaton binaryDivisibleBy(int divisor) {
+        Automaton automaton = new Automaton();
+        automaton.setNFA(false);
+        State[] states = addStates(automaton, divisor);
+        states[0].setFinal(true);
+
+        for (int r = 0; r < divisor; r++) {
+            automaton.addTransition(new Transition(states[r], states[(2 * r) % divisor], "0"));
+            automaton.addTransition(new Transition(states[r], states[(2 * r + 1) % divisor], "1"));
+        }
+        return automaton;
+    }
+
+    // Words over the alphabet that contain the pattern, as a NEA with |pattern| + 1 states
+    public static Automaton containing(String pattern, int alphabetSize) {
+        String all = String.join(",", symbols(alphabetSize));
+        Automaton automaton = new Automaton();
+        automaton.setNFA(true);
+        State[] states = addStates(automaton, pattern.length() + 1);
+        states[pattern.length()].setFinal(true);
+
+        automaton.addTransition(new Transition(states[0], states[0], all));
+        for (int i = 0; i < pattern.length(); i++) {
+            automaton.addTransition(new Transition(states[i], states[i + 1], String.valueOf(pattern.charAt(i))));
+        }
+        automaton.addTransition(new Transition(states[pattern.length()], states[pattern.length()], all));
+        return automaton;
+    }
+
+    public String randomWord(List<String> symbols, int length) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            word.append(symbols.get(random.nextInt(symbols.size())));
+        }
+        return word.toString();
+    }
+
+    // Input read along a random path from the initial state; shorter if the path gets stuck
+    public String randomWalk(Automaton automaton, int length) {
+        StringBuilder word = new StringBuilder(length);
+        State current = automaton.getInitialState();
+
+        while (current != null && word.length() < length) {
+            List<Transition> outgoing = automaton.getTransitionsFrom(current);
+            if (outgoing.isEmpty()) {
+                break;
+            }
+            Transition t = outgoing.get(random.nextInt(outgoing.size()));
+            word.append(randomSymbol(t));
+            current = t.getToState();
+        }
+        return word.toString();
+    }
+
+    // Up to 'count' distinct accepted words of at most maxLength symbols, found by random walks
+    public List<String> acceptedWords(Automaton automaton, int count, int maxLength) {
+        Set<String> words = new LinkedHashSet<>();
+        for (int attempt = 0; attempt < count * 100 && words.size() < count; attempt++) {
+            String word = walkToFinalState(automaton, maxLength);
+            if (word != null && automaton.simulate(word)) {
+                words.add(word);
+            }
+        }
+        return new ArrayList<>(words);
+    }
+
+    // Up to 'count' distinct rejected words of at most maxLength symbols over the automaton's alphabet
+    public List<String> rejectedWords(Automaton automaton, int count, int maxLength) {
+        List<String> symbols = automaton.getAlphabet().getSymbols();
+        Set<String> words = new LinkedHashSet<>();
+        if (symbols.isEmpty()) {
+            if (!automaton.simulate("")) {
+                words.add("");
+            }
+            return new ArrayList<>(words);
+        }
+
+        for (int attempt = 0; attempt < count * 100 && words.size() < count; attempt++) {
+            // Half of the candidates are mutated accepted walks, which are rejected only near the boundary
+            String word = random.nextBoolean()
+                    ? randomWord(symbols, random.nextInt(maxLength + 1))
+                    : mutate(randomWalk(automaton, random.nextInt(maxLength + 1)), symbols);
+            if (!automaton.simulate(word)) {
+                words.add(word);
+            }
+        }
+        return new ArrayList<>(words);
+    }
+
+    private String walkToFinalState(Automaton automaton, int maxLength) {
+        State current = automaton.getInitialState();
+        if (current == null) {
+            return null;
+        }
+
+        StringBuilder word = new StringBuilder();
+        List<Integer> finalPrefixes = new ArrayList<>();
+        if (current.isFinal()) {
+            finalPrefixes.add(0);
+        }
+        for (int i = 0; i < maxLength; i++) {
+            List<Transition> outgoing = automaton.getTransitionsFrom(current);
+            if (outgoing.isEmpty()) {
+                break;
+            }
+            Transition t = outgoing.get(random.nextInt(outgoing.size()));
+            word.append(randomSymbol(t));
+            current = t.getToState();
+            if (current.isFinal()) {
+                finalPrefixes.add(word.length());
+            }
+        }
+
+        if (finalPrefixes.isEmpty()) {
+            return null;
+        }
+        return word.substring(0, finalPrefixes.get(random.nextInt(finalPrefixes.size())));
+    }
+
+    // ε reads nothing, so it contributes an empty string
+    private String randomSymbol(Transition t) {
+        List<String> symbols = t.getIndividualSymbols();
+        if (symbols.isEmpty()) {
+            return "";
+        }
+        String symbol = symbols.get(random.nextInt(symbols.size()));
+        return symbol.equals(Transition.EPSILON) ? "" : symbol;
+    }
+
+    private String mutate(String word, List<String> symbols) {
+        if (word.isEmpty()) {
+            return symbols.get(random.nextInt(symbols.size()));
+        }
+        int position = random.nextInt(word.length());
+        return word.substring(0, position) + symbols.get(random.nextInt(symbols.size())) + word.substring(position + 1);
+    }
+
+    private State[] addStates(Automaton automaton, int count, double finalRatio) {
+        State[] states = addStates(automaton, count);
+        for (State state : states) {
+            state.setFinal(random.nextDouble() < finalRatio);
+        }
+        return states;
+    }
+
+    private static State[] addStates(Automaton automaton, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("At least one state is needed");
+        }
+        State[] states = new State[count];
+        for (int i = 0; i < count; i++) {
+            Point pos = AutomatonTables.gridPosition(i, count);
+            states[i] = new State("q" + i, pos.x, pos.y);
+            automaton.addState(states[i]);
+        }
+        automaton.setInitialState(states[0]);
+        return states;
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.core;
+
+import java.awt.Point;
+import java.util.*;
+
+// Helpers for turning int transition tables back into Automaton transitions
+public final class AutomatonTables {
+    private AutomatonTables() {
+    }
+
+    // Adds the transitions of table[state * symbolCount + symbol] (negative = none) to the automaton.
+    // Symbols leading from the same state to the same target share one comma-separated transition.
+    public static void addTransitions(Automaton automaton, State[] states, int[] table, SymbolTable symbols) {
+        int symbolCount = symbols.size();
+        Map<Integer, StringBuilder> labels = new LinkedHashMap<>();
+
+        for (int from = 0; from < states.length; from++) {
+            labels.clear();
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                int target = table[from * symbolCount + symbol];
+                if (target < 0) {
+                    continue;
+                }
+                StringBuilder label = labels.computeIfAbsent(target, k -> new StringBuilder());
+                if (label.length() > 0) {
+                    label.append(',');
+                }
+                label.append(symbols.getSymbol(symbol));
+            }
+            for (Map.Entry<Integer, StringBuilder> e : labels.entrySet()) {
+                automaton.addTransition(new Transition(states[from], states[e.getKey()], e.getValue().toString()));
+            }
+        }
+    }
+
+    // Places states on a simple grid, for automata that were not drawn by hand
+    public static Point gridPosition(int index, int count) {
+        int columns = Math.max(1, (int) Math.ceil(Math.sqrt(count)));
+        return new Point(100 + (index % columns) * 120, 100 + (index / columns) * 120);
+    }
+}
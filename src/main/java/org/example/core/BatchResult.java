@@ -0,0 +1,60 @@
+package org.example.core;
+
+import java.util.BitSet;
+
+// Outcome of testing many strings at once: one bit per input string plus throughput numbers
+public class BatchResult {
+    private final BitSet accepted;
+    private final int size;
+    private final long totalChars;
+    private final long elapsedNanos;
+
+    public BatchResult(BitSet accepted, int size, long totalChars, long elapsedNanos) {
+        this.accepted = accepted;
+        this.size = size;
+        this.totalChars = totalChars;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isAccepted(int index) {
+        return accepted.get(index);
+    }
+
+    public BitSet getAccepted() {
+        return (BitSet) accepted.clone();
+    }
+
+    public int getAcceptedCount() {
+        return accepted.cardinality();
+    }
+
+    public int getRejectedCount() {
+        return size - getAcceptedCount();
+    }
+
+    public long getTotalChars() {
+        return totalChars;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getStringsPerSecond() {
+        return elapsedNanos == 0 ? 0 : size * 1e9 / elapsedNanos;
+    }
+
+    public double getCharsPerSecond() {
+        return elapsedNanos == 0 ? 0 : totalChars * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d/%d accepted in %.1f ms (%.0f strings/s, %.0f chars/s)",
+                getAcceptedCount(), size, elapsedNanos / 1e6, getStringsPerSecond(), getCharsPerSecond());
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.core;
+
+import java.io.Serial;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// Tests many strings in parallel against an immutable compiled snapshot.
+// The inputs are split into ranges of whole 64-bit words, so every fork-join leaf
+// writes its own words of the result bitset and no synchronization is needed.
+public final class BatchTester {
+    // Strings per leaf task, a multiple of 64
+    private static final int LEAF_SIZE = 1024;
+
+    private BatchTester() {
+    }
+
+    public static BatchResult run(CompiledDfa dfa, Collection<String> inputs) {
+        return run(() -> dfa::accepts, inputs);
+    }
+
+    // Each leaf task gets its own lazy DEA over the shared NEA snapshot
+    public static BatchResult run(CompiledNfa nfa, int lazyDfaStates, Collection<String> inputs) {
+        return run(() -> new LazyDfa(nfa, lazyDfaStates)::accepts, inputs);
+    }
+
+    public static BatchResult run(Supplier<Predicate<CharSequence>> acceptorFactory, Collection<String> inputs) {
+        String[] strings = inputs.toArray(new String[0]);
+        long[] bits = new long[(strings.length + 63) >>> 6];
+        long totalChars = 0;
+        for (String s : strings) {
+            totalChars += s.length();
+        }
+
+        long start = System.nanoTime();
+        ForkJoinPool.commonPool().invoke(new Leaf(acceptorFactory, strings, bits, 0, strings.length));
+        long elapsed = System.nanoTime() - start;
+
+        return new BatchResult(BitSet.valueOf(bits), strings.length, totalChars, elapsed);
+    }
+
+    private static class Leaf extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        // Leaves are never serialized, the factory is only needed while they run
+        private final transient Supplier<Predicate<CharSequence>> acceptorFactory;
+        private final String[] strings;
+        private final long[] bits;
+        private final int from;
+        private final int to;
+
+        Leaf(Supplier<Predicate<CharSequence>> acceptorFactory, String[] strings, long[] bits, int from, int to) {
+            this.acceptorFactory = acceptorFactory;
+            this.strings = strings;
+            this.bits = bits;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SIZE) {
+                // Split on a word boundary
+                int mid = ((from + (to - from) / 2) + 63) & ~63;
+                invokeAll(new Leaf(acceptorFactory, strings, bits, from, mid),
+                        new Leaf(acceptorFactory, strings, bits, mid, to));
+                return;
+            }
+
+            Predicate<CharSequence> acceptor = acceptorFactory.get();
+            for (int i = from; i < to; i++) {
+                if (acceptor.test(strings[i])) {
+                    bits[i >>> 6] |= 1L << i;
+                }
+            }
+        }
+    }
+}
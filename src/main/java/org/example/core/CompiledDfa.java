@@ -0,0 +1,166 @@
+package org.example.core;
+
+import java.util.*;
+
+// Immutable, table-driven form of a DEA.
+// States and symbols are numbered densely; table[state * symbolCount + symbol] holds the
+// target state id, or DEAD if the transition is missing.
+public final class CompiledDfa {
+    public static final int DEAD = -1;
+
+    private final State[] states;
+    private final SymbolTable symbols;
+    private final int symbolCount;
+    private final int[] table;
+    private final boolean[] accepting;
+    private final int initialState;
+
+    private CompiledDfa(State[] states, SymbolTable symbols, int[] table, boolean[] accepting, int initialState) {
+        this.states = states;
+        this.symbols = symbols;
+        this.symbolCount = symbols.size();
+        this.table = table;
+        this.accepting = accepting;
+        this.initialState = initialState;
+    }
+
+    public static CompiledDfa compile(Automaton automaton) {
+        State[] states = automaton.getStates().toArray(new State[0]);
+        Map<State, Integer> stateIds = new HashMap<>();
+        for (int i = 0; i < states.length; i++) {
+            stateIds.put(states[i], i);
+        }
+
+        SymbolTable symbols = automaton.getAlphabet().toSymbolTable();
+        int symbolCount = symbols.size();
+
+        long tableSize = (long) states.length * symbolCount;
+        if (tableSize > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Transition table too large: " + tableSize + " entries");
+        }
+        int[] table = new int[(int) tableSize];
+        Arrays.fill(table, DEAD);
+
+        // First added transition wins, same as Automaton.getTransition
+        for (int from = 0; from < states.length; from++) {
+            for (Transition t : automaton.getTransitionsFrom(states[from])) {
+                Integer to = stateIds.get(t.getToState());
+                if (to == null) {
+                    continue;
+                }
+                for (int symbol : t.getSymbolIds()) {
+                    int index = from * symbolCount + symbol;
+                    if (table[index] == DEAD) {
+                        table[index] = to;
+                    }
+                }
+            }
+        }
+
+        boolean[] accepting = new boolean[states.length];
+        for (int i = 0; i < states.length; i++) {
+            accepting[i] = states[i].isFinal();
+        }
+
+        State initial = automaton.getInitialState();
+        Integer initialId = initial == null ? null : stateIds.get(initial);
+
+        return new CompiledDfa(states, symbols, table, accepting, initialId == null ? DEAD : initialId);
+    }
+
+    public int getInitialState() {
+        return initialState;
+    }
+
+    public int getStateCount() {
+        return states.length;
+    }
+
+    public State getState(int id) {
+        return states[id];
+    }
+
+    public SymbolTable getSymbolTable() {
+        return symbols;
+    }
+
+    public boolean isAccepting(int state) {
+        return state != DEAD && accepting[state];
+    }
+
+    public int step(int state, int symbol) {
+        if (state == DEAD || symbol == SymbolTable.NO_SYMBOL) {
+            return DEAD;
+        }
+        return table[state * symbolCount + symbol];
+    }
+
+    public int step(int state, char c) {
+        return step(state, symbols.idOf(c));
+    }
+
+    // Runs the input from the given state, returns the end state or DEAD
+    public int run(int state, CharSequence input) {
+        int length = input.length();
+        for (int i = 0; i < length && state != DEAD; i++) {
+            int symbol = symbols.idOf(input.charAt(i));
+            if (symbol == SymbolTable.NO_SYMBOL) {
+                return DEAD;
+            }
+            state = table[state * symbolCount + symbol];
+        }
+        return state;
+    }
+
+    public boolean accepts(CharSequence input) {
+        return isAccepting(run(initialState, input));
+    }
+
+    public AcceptanceSession newSession() {
+        return new Session();
+    }
+
+    private final class Session extends AcceptanceSession {
+        private int state = initialState;
+
+        @Override
+        protected void consume(char c) {
+            state = step(state, symbols.idOf(c));
+        }
+
+        @Override
+        protected void consume(char[] chunk, int offset, int length) {
+            int s = state;
+            for (int i = offset; i < offset + length && s != DEAD; i++) {
+                int symbol = symbols.idOf(chunk[i]);
+                s = symbol == SymbolTable.NO_SYMBOL ? DEAD : table[s * symbolCount + symbol];
+            }
+            state = s;
+        }
+
+        @Override
+        protected void consume(CharSequence chunk, int from, int to) {
+            int s = state;
+            for (int i = from; i < to && s != DEAD; i++) {
+                int symbol = symbols.idOf(chunk.charAt(i));
+                s = symbol == SymbolTable.NO_SYMBOL ? DEAD : table[s * symbolCount + symbol];
+            }
+            state = s;
+        }
+
+        @Override
+        public boolean isAccepting() {
+            return CompiledDfa.this.isAccepting(state);
+        }
+
+        @Override
+        public boolean isDead() {
+            return state == DEAD;
+        }
+
+        @Override
+        protected void restart() {
+            state = initialState;
+        }
+    }
+}
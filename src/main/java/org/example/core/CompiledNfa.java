@@ -0,0 +1,287 @@
+package org.example.core;
+
+import java.util.*;
+
+// Immutable, bitset-based form of a NEA.
+// Sets of states are long[] bitsets of getWordCount() words; successors[state * symbolCount + symbol]
+// holds the successor set for that state and symbol, or null if there is none.
+// ε-transitions are compiled away: successor sets and the initial set already contain their
+// ε-closures, so the simulation never follows ε-transitions at runtime.
+public final class CompiledNfa {
+    private final State[] states;
+    private final SymbolTable symbols;
+    private final int symbolCount;
+    private final int words;
+    private final long[][] successors;
+    private final long[] initialStates;
+    private final long[] finalMask;
+
+    private CompiledNfa(State[] states, SymbolTable symbols, long[][] successors,
+                        long[] initialStates, long[] finalMask) {
+        this.states = states;
+        this.symbols = symbols;
+        this.symbolCount = symbols.size();
+        this.words = finalMask.length;
+        this.successors = successors;
+        this.initialStates = initialStates;
+        this.finalMask = finalMask;
+    }
+
+    public static CompiledNfa compile(Automaton automaton) {
+        State[] states = automaton.getStates().toArray(new State[0]);
+        Map<State, Integer> stateIds = new HashMap<>();
+        for (int i = 0; i < states.length; i++) {
+            stateIds.put(states[i], i);
+        }
+
+        SymbolTable symbols = automaton.getAlphabet().toSymbolTable();
+        int symbolCount = symbols.size();
+        int words = wordsFor(states.length);
+
+        long tableSize = (long) states.length * symbolCount;
+        if (tableSize > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Transition table too large: " + tableSize + " entries");
+        }
+        long[][] successors = new long[(int) tableSize][];
+        int[][] epsilonSuccessors = new int[states.length][];
+        for (Transition t : automaton.getTransitions()) {
+            Integer from = stateIds.get(t.getFromState());
+            Integer to = stateIds.get(t.getToState());
+            if (from == null || to == null) {
+                continue;
+            }
+            if (t.isEpsilon()) {
+                int[] targets = epsilonSuccessors[from];
+                targets = targets == null ? new int[1] : Arrays.copyOf(targets, targets.length + 1);
+                targets[targets.length - 1] = to;
+                epsilonSuccessors[from] = targets;
+            }
+            for (int symbol : t.getSymbolIds()) {
+                int index = from * symbolCount + symbol;
+                if (successors[index] == null) {
+                    successors[index] = new long[words];
+                }
+                successors[index][to >>> 6] |= 1L << to;
+            }
+        }
+
+        long[] initialStates = new long[words];
+        Integer initial = automaton.getInitialState() == null ? null : stateIds.get(automaton.getInitialState());
+        if (initial != null) {
+            initialStates[initial >>> 6] |= 1L << initial;
+        }
+
+        if (automaton.hasEpsilonTransitions()) {
+            long[][] closures = EpsilonClosure.compute(states.length, epsilonSuccessors);
+            long[] scratch = new long[words];
+            for (long[] set : successors) {
+                if (set != null) {
+                    EpsilonClosure.close(set, closures, scratch);
+                }
+            }
+            EpsilonClosure.close(initialStates, closures, scratch);
+        }
+
+        long[] finalMask = new long[words];
+        for (int i = 0; i < states.length; i++) {
+            if (states[i].isFinal()) {
+                finalMask[i >>> 6] |= 1L << i;
+            }
+        }
+
+        return new CompiledNfa(states, symbols, successors, initialStates, finalMask);
+    }
+
+    // The DEA engine in NEA form: at most one successor per state and symbol, as in the table,
+    // so a DEA-mode automaton with several transitions on a symbol keeps first-transition-wins.
+    // Successor sets of the same target are shared and must not be modified.
+    public static CompiledNfa of(CompiledDfa dfa) {
+        int stateCount = dfa.getStateCount();
+        State[] states = new State[stateCount];
+        for (int i = 0; i < stateCount; i++) {
+            states[i] = dfa.getState(i);
+        }
+        SymbolTable symbols = dfa.getSymbolTable();
+        int symbolCount = symbols.size();
+        int words = wordsFor(stateCount);
+
+        long[][] singletons = new long[stateCount][];
+        long[][] successors = new long[stateCount * symbolCount][];
+        for (int from = 0; from < stateCount; from++) {
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                int to = dfa.step(from, symbol);
+                if (to == CompiledDfa.DEAD) {
+                    continue;
+                }
+                if (singletons[to] == null) {
+                    singletons[to] = new long[words];
+                    singletons[to][to >>> 6] |= 1L << to;
+                }
+                successors[from * symbolCount + symbol] = singletons[to];
+            }
+        }
+
+        long[] initialStates = new long[words];
+        int initial = dfa.getInitialState();
+        if (initial != CompiledDfa.DEAD) {
+            initialStates[initial >>> 6] |= 1L << initial;
+        }
+
+        long[] finalMask = new long[words];
+        for (int i = 0; i < stateCount; i++) {
+            if (dfa.isAccepting(i)) {
+                finalMask[i >>> 6] |= 1L << i;
+            }
+        }
+
+        return new CompiledNfa(states, symbols, successors, initialStates, finalMask);
+    }
+
+    static int wordsFor(int stateCount) {
+        return Math.max(1, (stateCount + 63) >>> 6);
+    }
+
+    public int getStateCount() {
+        return states.length;
+    }
+
+    public State getState(int id) {
+        return states[id];
+    }
+
+    public SymbolTable getSymbolTable() {
+        return symbols;
+    }
+
+    public int getWordCount() {
+        return words;
+    }
+
+    public long[] newStateSet() {
+        return new long[words];
+    }
+
+    public void copyInitialStates(long[] target) {
+        System.arraycopy(initialStates, 0, target, 0, words);
+    }
+
+    // Successor set of one state, or null if the state has no transition on the symbol
+    public long[] getSuccessors(int state, int symbol) {
+        return successors[state * symbolCount + symbol];
+    }
+
+    // Writes all successors of 'from' on the symbol into 'to', returns false if 'to' is empty
+    public boolean step(long[] from, int symbol, long[] to) {
+        Arrays.fill(to, 0L);
+        if (symbol == SymbolTable.NO_SYMBOL) {
+            return false;
+        }
+
+        long any = 0L;
+        for (int w = 0; w < words; w++) {
+            long bits = from[w];
+            while (bits != 0) {
+                int state = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+
+                long[] next = successors[state * symbolCount + symbol];
+                if (next != null) {
+                    for (int i = 0; i < words; i++) {
+                        to[i] |= next[i];
+                        any |= next[i];
+                    }
+                }
+            }
+        }
+        return any != 0L;
+    }
+
+    public boolean isFinal(int state) {
+        return (finalMask[state >>> 6] & (1L << state)) != 0L;
+    }
+
+    public boolean isAccepting(long[] set) {
+        for (int w = 0; w < words; w++) {
+            if ((set[w] & finalMask[w]) != 0L) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean accepts(CharSequence input) {
+        long[] current = newStateSet();
+        long[] next = newStateSet();
+        copyInitialStates(current);
+
+        int length = input.length();
+        for (int i = 0; i < length; i++) {
+            if (!step(current, symbols.idOf(input.charAt(i)), next)) {
+                return false; // All paths are blocked
+            }
+            long[] swap = current;
+            current = next;
+            next = swap;
+        }
+
+        return isAccepting(current);
+    }
+
+    public AcceptanceSession newSession() {
+        return new Session();
+    }
+
+    // Swaps two preallocated frontier buffers, feeding allocates nothing
+    private final class Session extends AcceptanceSession {
+        private long[] current = newStateSet();
+        private long[] next = newStateSet();
+        private boolean dead;
+
+        Session() {
+            restart();
+        }
+
+        @Override
+        protected void consume(char c) {
+            dead = !step(current, symbols.idOf(c), next);
+            long[] swap = current;
+            current = next;
+            next = swap;
+        }
+
+        @Override
+        protected void consume(char[] chunk, int offset, int length) {
+            for (int i = offset; i < offset + length && !dead; i++) {
+                consume(chunk[i]);
+            }
+        }
+
+        @Override
+        protected void consume(CharSequence chunk, int from, int to) {
+            for (int i = from; i < to && !dead; i++) {
+                consume(chunk.charAt(i));
+            }
+        }
+
+        @Override
+        public boolean isAccepting() {
+            return CompiledNfa.this.isAccepting(current);
+        }
+
+        @Override
+        public boolean isDead() {
+            return dead;
+        }
+
+        @Override
+        protected void restart() {
+            copyInitialStates(current);
+            dead = true;
+            for (long word : current) {
+                if (word != 0L) {
+                    dead = false;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package org.example.core;
+
+import java.awt.Point;
+import java.util.*;
+
+// Hopcroft's DEA minimization in O(n * k * log n).
+// The automaton is trimmed to its reachable part and completed with a dead state, then the
+// partition {final, non-final} is refined with array-backed blocks: elements[] holds the states
+// grouped by block, each block is the range [first, end) and marked states are swapped to its front.
+public class DfaMinimizer {
+
+    public Automaton minimize(Automaton dfa) {
+        if (dfa.isNFA() || dfa.hasEpsilonTransitions()) {
+            throw new IllegalArgumentException("Minimization needs a DEA, convert the NEA first");
+        }
+
+        CompiledDfa compiled = dfa.getCompiledDfa();
+        Automaton result = new Automaton();
+        result.setNFA(false);
+        if (compiled.getInitialState() == CompiledDfa.DEAD) {
+            return result;
+        }
+
+        int stateCount = compiled.getStateCount();
+        SymbolTable symbols = compiled.getSymbolTable();
+        int symbolCount = symbols.size();
+        int[] table = new int[stateCount * symbolCount];
+        boolean[] accepting = new boolean[stateCount];
+        for (int s = 0; s < stateCount; s++) {
+            accepting[s] = compiled.isAccepting(s);
+            for (int a = 0; a < symbolCount; a++) {
+                table[s * symbolCount + a] = compiled.step(s, a);
+            }
+        }
+
+        Minimized minimized = minimize(table, symbolCount, accepting, compiled.getInitialState());
+
+        // Each block is named and placed after its first original state
+        State[] states = new State[minimized.getStateCount()];
+        for (int s = 0; s < stateCount; s++) {
+            int block = minimized.getBlockOf(s);
+            if (block >= 0 && states[block] == null) {
+                Point pos = compiled.getState(s).getPosition();
+                states[block] = new State(compiled.getState(s).getId(), pos.x, pos.y);
+                states[block].setFinal(minimized.isAccepting(block));
+            }
+        }
+        for (int block = 0; block < states.length; block++) {
+            if (states[block] == null) {
+                // Only the initial state of an empty language has no original counterpart
+                Point pos = compiled.getState(compiled.getInitialState()).getPosition();
+                states[block] = new State(compiled.getState(compiled.getInitialState()).getId(), pos.x, pos.y);
+            }
+            result.addState(states[block]);
+        }
+        result.setInitialState(states[minimized.getInitialState()]);
+        AutomatonTables.addTransitions(result, states, minimized.getTable(), symbols);
+
+        return result;
+    }
+
+    // Minimizes a DEA given as table[state * symbolCount + symbol] (negative = no transition).
+    // The result is again partial: the block of the dead state is left out.
+    public static Minimized minimize(int[] table, int symbolCount, boolean[] accepting, int initialState) {
+        int n = accepting.length;
+
+        // Reachable states in BFS order, renumbered so that the initial state is 0
+        int[] newId = new int[n];
+        Arrays.fill(newId, -1);
+        int[] order = new int[n];
+        int reached = 0;
+        newId[initialState] = 0;
+        order[reached++] = initialState;
+        for (int i = 0; i < reached; i++) {
+            int s = order[i];
+            for (int a = 0; a < symbolCount; a++) {
+                int t = table[s * symbolCount + a];
+                if (t >= 0 && newId[t] < 0) {
+                    newId[t] = reached;
+                    order[reached++] = t;
+                }
+            }
+        }
+
+        // Complete transition function with the dead state as the last state
+        int dead = reached;
+        int size = reached + 1;
+        int[] delta = new int[size * symbolCount];
+        for (int i = 0; i < reached; i++) {
+            for (int a = 0; a < symbolCount; a++) {
+                int t = table[order[i] * symbolCount + a];
+                delta[i * symbolCount + a] = t < 0 ? dead : newId[t];
+            }
+        }
+        Arrays.fill(delta, dead * symbolCount, size * symbolCount, dead);
+
+        // Inverse transitions in CSR form, keyed by target * symbolCount + symbol
+        int[] inverseStart = new int[size * symbolCount + 1];
+        for (int i = 0; i < delta.length; i++) {
+            inverseStart[delta[i] * symbolCount + i % symbolCount + 1]++;
+        }
+        for (int i = 0; i < size * symbolCount; i++) {
+            inverseStart[i + 1] += inverseStart[i];
+        }
+        int[] inverse = new int[delta.length];
+        int[] fill = Arrays.copyOf(inverseStart, size * symbolCount);
+        for (int i = 0; i < delta.length; i++) {
+            inverse[fill[delta[i] * symbolCount + i % symbolCount]++] = i / symbolCount;
+        }
+
+        Partition p = new Partition(size);
+        int finals = 0;
+        for (int i = 0; i < reached; i++) {
+            if (accepting[order[i]]) {
+                p.place(i, finals++);
+            }
+        }
+        int position = finals;
+        for (int i = 0; i < size; i++) {
+            if (i == dead || !accepting[order[i]]) {
+                p.place(i, position++);
+            }
+        }
+        p.initBlocks(finals);
+
+        // Worklist of (block, symbol) splitters; with two initial blocks only the smaller one is needed
+        int[] worklist = new int[size * Math.max(1, symbolCount)];
+        boolean[] inWorklist = new boolean[worklist.length];
+        int pending = 0;
+        int firstSplitter = p.blockCount == 1 || p.size(0) <= p.size(1) ? 0 : 1;
+        for (int a = 0; a < symbolCount; a++) {
+            worklist[pending++] = firstSplitter * symbolCount + a;
+            inWorklist[firstSplitter * symbolCount + a] = true;
+        }
+
+        int[] splitter = new int[size];
+        int[] touched = new int[size];
+        while (pending > 0) {
+            int entry = worklist[--pending];
+            inWorklist[entry] = false;
+            int block = entry / symbolCount;
+            int symbol = entry % symbolCount;
+
+            // Copy the splitter first, marking may reorder its elements
+            int length = p.end[block] - p.first[block];
+            System.arraycopy(p.elements, p.first[block], splitter, 0, length);
+
+            int touchedCount = 0;
+            for (int i = 0; i < length; i++) {
+                int key = splitter[i] * symbolCount + symbol;
+                for (int j = inverseStart[key]; j < inverseStart[key + 1]; j++) {
+                    int b = p.mark(inverse[j]);
+                    if (b >= 0) {
+                        touched[touchedCount++] = b;
+                    }
+                }
+            }
+
+            for (int i = 0; i < touchedCount; i++) {
+                int x = touched[i];
+                int y = p.split(x);
+                if (y < 0) {
+                    continue;
+                }
+                for (int a = 0; a < symbolCount; a++) {
+                    int add = inWorklist[x * symbolCount + a] || p.size(y) <= p.size(x) ? y : x;
+                    worklist[pending++] = add * symbolCount + a;
+                    inWorklist[add * symbolCount + a] = true;
+                }
+            }
+        }
+
+        // Number the blocks in BFS order from the initial block, leaving out the dead block
+        int deadBlock = p.blockOf[dead];
+        int[] blockId = new int[p.blockCount];
+        Arrays.fill(blockId, -1);
+        int[] representative = new int[p.blockCount];
+        int count = 0;
+        int initialBlock = p.blockOf[0];
+        blockId[initialBlock] = count;
+        representative[count++] = 0;
+        for (int i = 0; i < count; i++) {
+            int s = representative[i];
+            if (p.blockOf[s] == deadBlock) {
+                continue;
+            }
+            for (int a = 0; a < symbolCount; a++) {
+                int b = p.blockOf[delta[s * symbolCount + a]];
+                if (b != deadBlock && blockId[b] < 0) {
+                    blockId[b] = count;
+                    representative[count++] = delta[s * symbolCount + a];
+                }
+            }
+        }
+
+        int[] minTable = new int[count * symbolCount];
+        boolean[] minAccepting = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            int s = representative[i];
+            minAccepting[i] = s != dead && accepting[order[s]];
+            for (int a = 0; a < symbolCount; a++) {
+                int b = p.blockOf[delta[s * symbolCount + a]];
+                minTable[i * symbolCount + a] = b == deadBlock ? -1 : blockId[b];
+            }
+        }
+        // An empty language keeps its (dead) initial state, without transitions
+        if (initialBlock == deadBlock) {
+            Arrays.fill(minTable, -1);
+        }
+
+        int[] blockOf = new int[n];
+        for (int s = 0; s < n; s++) {
+            blockOf[s] = newId[s] < 0 ? -1 : blockId[p.blockOf[newId[s]]];
+        }
+        if (initialBlock == deadBlock) {
+            Arrays.fill(blockOf, -1);
+            blockOf[initialState] = 0;
+        }
+
+        return new Minimized(minTable, symbolCount, minAccepting, blockOf);
+    }
+
+    // Blocks of states over one permutation array
+    private static final class Partition {
+        final int[] elements;
+        final int[] location;
+        final int[] blockOf;
+        final int[] first;
+        final int[] end;
+        final int[] marked;
+        int blockCount;
+
+        Partition(int size) {
+            elements = new int[size];
+            location = new int[size];
+            blockOf = new int[size];
+            first = new int[size];
+            end = new int[size];
+            marked = new int[size];
+        }
+
+        void place(int state, int position) {
+            elements[position] = state;
+            location[state] = position;
+        }
+
+        void initBlocks(int boundary) {
+            int n = elements.length;
+            if (boundary > 0) {
+                addBlock(0, boundary);
+            }
+            if (boundary < n) {
+                addBlock(boundary, n);
+            }
+        }
+
+        int size(int block) {
+            return end[block] - first[block];
+        }
+
+        // Moves the state to the marked front of its block, returns the block if it was touched for the first time
+        int mark(int state) {
+            int block = blockOf[state];
+            int boundary = first[block] + marked[block];
+            int pos = location[state];
+            if (pos < boundary) {
+                return -1;
+            }
+            int other = elements[boundary];
+            elements[boundary] = state;
+            location[state] = boundary;
+            elements[pos] = other;
+            location[other] = pos;
+            return marked[block]++ == 0 ? block : -1;
+        }
+
+        // Splits off the marked part, the smaller half becomes the new block; returns it or -1
+        int split(int block) {
+            int boundary = first[block] + marked[block];
+            marked[block] = 0;
+            if (boundary == end[block]) {
+                return -1;
+            }
+
+            int created;
+            if (boundary - first[block] <= end[block] - boundary) {
+                created = addBlock(first[block], boundary);
+                first[block] = boundary;
+            } else {
+                created = addBlock(boundary, end[block]);
+                end[block] = boundary;
+            }
+            return created;
+        }
+
+        private int addBlock(int from, int to) {
+            int block = blockCount++;
+            first[block] = from;
+            end[block] = to;
+            for (int i = from; i < to; i++) {
+                blockOf[elements[i]] = block;
+            }
+            return block;
+        }
+    }
+
+    public static class Minimized {
+        private final int[] table;
+        private final int symbolCount;
+        private final boolean[] accepting;
+        private final int[] blockOf;
+
+        Minimized(int[] table, int symbolCount, boolean[] accepting, int[] blockOf) {
+            this.table = table;
+            this.symbolCount = symbolCount;
+            this.accepting = accepting;
+            this.blockOf = blockOf;
+        }
+
+        public int getStateCount() {
+            return accepting.length;
+        }
+
+        // Always 0, states are numbered in BFS order
+        public int getInitialState() {
+            return 0;
+        }
+
+        public int[] getTable() {
+            return table;
+        }
+
+        public int getSymbolCount() {
+            return symbolCount;
+        }
+
+        public boolean isAccepting(int state) {
+            return accepting[state];
+        }
+
+        // Minimized state of an original state, or -1 if it was unreachable or dead
+        public int getBlockOf(int state) {
+            return blockOf[state];
+        }
+    }
+}
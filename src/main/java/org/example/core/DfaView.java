@@ -0,0 +1,66 @@
+package org.example.core;
+
+import java.util.*;
+
+// Deterministic view of an automaton over a given list of symbols, for algorithms that compare
+// or combine automata. DEAs are read from their CompiledDfa; NEAs (and automata with
+// ε-transitions) are determinized lazily through an unbounded LazyDfa, so only the subsets
+// that are actually reached get built. Symbols the automaton does not know lead to DEAD.
+final class DfaView {
+    static final int DEAD = -1;
+
+    private final CompiledDfa dfa;
+    private final LazyDfa lazyDfa;
+    // Position in the shared symbol list -> symbol id of the automaton
+    private final int[] symbolMap;
+
+    DfaView(Automaton automaton, List<String> symbols) {
+        Alphabet alphabet = automaton.getAlphabet();
+        this.symbolMap = new int[symbols.size()];
+        for (int i = 0; i < symbolMap.length; i++) {
+            symbolMap[i] = alphabet.idOf(symbols.get(i));
+        }
+
+        if (automaton.isNFA() || automaton.hasEpsilonTransitions()) {
+            this.dfa = null;
+            this.lazyDfa = new LazyDfa(automaton.getCompiledNfa(), Integer.MAX_VALUE);
+        } else {
+            this.dfa = automaton.getCompiledDfa();
+            this.lazyDfa = null;
+        }
+    }
+
+    // Symbols of both automata, first those of 'a' in alphabet order, then the new ones of 'b'
+    static List<String> sharedSymbols(Automaton a, Automaton b) {
+        Set<String> symbols = new LinkedHashSet<>(a.getAlphabet().getSymbols());
+        symbols.addAll(b.getAlphabet().getSymbols());
+        return new ArrayList<>(symbols);
+    }
+
+    int getInitialState() {
+        return dfa != null ? dfa.getInitialState() : lazyDfa.getInitialState();
+    }
+
+    int step(int state, int symbol) {
+        int mapped = symbolMap[symbol];
+        if (state == DEAD || mapped == SymbolTable.NO_SYMBOL) {
+            return DEAD;
+        }
+        if (dfa != null) {
+            return dfa.step(state, mapped);
+        }
+        int next = lazyDfa.step(state, mapped);
+        // A flush would renumber the states the callers still hold
+        if (lazyDfa.getFlushCount() > 0) {
+            throw new IllegalStateException("Too many DEA states: " + lazyDfa.getMaxStates());
+        }
+        return next;
+    }
+
+    boolean isAccepting(int state) {
+        if (state == DEAD) {
+            return false;
+        }
+        return dfa != null ? dfa.isAccepting(state) : lazyDfa.isAccepting(state);
+    }
+}
@@ -0,0 +1,141 @@
+package org.example.core;
+
+import java.util.*;
+
+// ε-closures of all states at once, as bitsets.
+// Cycles of ε-transitions are collapsed with Tarjan's SCC algorithm (iterative, so long ε-chains
+// cannot overflow the stack). Tarjan finishes components in reverse topological order, so the
+// closure of a component is its members plus the already finished closures of its ε-successors.
+final class EpsilonClosure {
+
+    private EpsilonClosure() {
+    }
+
+    // epsilonSuccessors[s] are the targets of the ε-transitions of state s (may be null).
+    // Returns the closure of every state, or null for states whose closure is only the state itself;
+    // states of one cycle share the same array.
+    static long[][] compute(int stateCount, int[][] epsilonSuccessors) {
+        int words = CompiledNfa.wordsFor(stateCount);
+        long[][] closures = new long[stateCount][];
+
+        int[] index = new int[stateCount];
+        int[] lowLink = new int[stateCount];
+        int[] component = new int[stateCount];
+        Arrays.fill(index, -1);
+        Arrays.fill(component, -1);
+        int[] sccStack = new int[stateCount];
+        int sccTop = 0;
+        int[] callStack = new int[stateCount];
+        int[] edgePosition = new int[stateCount];
+        int nextIndex = 0;
+        int componentCount = 0;
+
+        for (int root = 0; root < stateCount; root++) {
+            if (index[root] >= 0) {
+                continue;
+            }
+            int callTop = 0;
+            callStack[callTop++] = root;
+            index[root] = lowLink[root] = nextIndex++;
+            sccStack[sccTop++] = root;
+
+            while (callTop > 0) {
+                int v = callStack[callTop - 1];
+                int[] edges = epsilonSuccessors[v];
+                if (edges != null && edgePosition[v] < edges.length) {
+                    int w = edges[edgePosition[v]++];
+                    if (index[w] < 0) {
+                        index[w] = lowLink[w] = nextIndex++;
+                        sccStack[sccTop++] = w;
+                        callStack[callTop++] = w;
+                    } else if (component[w] < 0) {
+                        // w is still on the SCC stack
+                        lowLink[v] = Math.min(lowLink[v], index[w]);
+                    }
+                    continue;
+                }
+
+                callTop--;
+                if (callTop > 0) {
+                    int parent = callStack[callTop - 1];
+                    lowLink[parent] = Math.min(lowLink[parent], lowLink[v]);
+                }
+                if (lowLink[v] == index[v]) {
+                    int first = sccTop;
+                    do {
+                        first--;
+                        component[sccStack[first]] = componentCount;
+                    } while (sccStack[first] != v);
+                    closeComponent(sccStack, first, sccTop, epsilonSuccessors, component, closures, words);
+                    sccTop = first;
+                    componentCount++;
+                }
+            }
+        }
+
+        return closures;
+    }
+
+    // Members are sccStack[first, end); all ε-successors outside the component are already closed
+    private static void closeComponent(int[] sccStack, int first, int end, int[][] epsilonSuccessors,
+                                       int[] component, long[][] closures, int words) {
+        int v = sccStack[first];
+        boolean trivial = end - first == 1 && (epsilonSuccessors[v] == null || onlySelfLoops(v, epsilonSuccessors[v]));
+        if (trivial) {
+            return;
+        }
+
+        long[] closure = new long[words];
+        for (int i = first; i < end; i++) {
+            int member = sccStack[i];
+            closure[member >>> 6] |= 1L << member;
+            int[] edges = epsilonSuccessors[member];
+            if (edges == null) {
+                continue;
+            }
+            for (int w : edges) {
+                if (component[w] == component[member]) {
+                    continue;
+                }
+                if (closures[w] == null) {
+                    closure[w >>> 6] |= 1L << w;
+                } else {
+                    long[] other = closures[w];
+                    for (int j = 0; j < words; j++) {
+                        closure[j] |= other[j];
+                    }
+                }
+            }
+        }
+        for (int i = first; i < end; i++) {
+            closures[sccStack[i]] = closure;
+        }
+    }
+
+    private static boolean onlySelfLoops(int state, int[] edges) {
+        for (int w : edges) {
+            if (w != state) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Replaces 'set' by the union of the closures of its states
+    static void close(long[] set, long[][] closures, long[] scratch) {
+        System.arraycopy(set, 0, scratch, 0, set.length);
+        for (int w = 0; w < scratch.length; w++) {
+            long bits = scratch[w];
+            while (bits != 0) {
+                int state = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                long[] closure = closures[state];
+                if (closure != null) {
+                    for (int i = 0; i < set.length; i++) {
+                        set[i] |= closure[i];
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package org.example.core;
+
+import java.util.*;
+
+// Decides whether two automata accept the same language (Hopcroft-Karp).
+// Starting from the pair of initial states, pairs of states are merged in a union-find structure
+// and only pairs that were not already known to be equivalent are explored, so the number of
+// explored pairs is at most the number of states of both DEAs, not their product.
+// The exploration is breadth-first, so the first pair that disagrees on acceptance yields a
+// shortest counterexample. NEAs are determinized lazily, only for the subsets that are reached.
+public class EquivalenceChecker {
+
+    public Result check(Automaton a, Automaton b) {
+        List<String> symbols = DfaView.sharedSymbols(a, b);
+        DfaView left = new DfaView(a, symbols);
+        DfaView right = new DfaView(b, symbols);
+        int symbolCount = symbols.size();
+
+        UnionFind classes = new UnionFind();
+        PairQueue pairs = new PairQueue();
+        int p0 = left.getInitialState();
+        int q0 = right.getInitialState();
+        classes.union(leftCode(p0), rightCode(q0));
+        pairs.add(p0, q0, -1, -1);
+        if (left.isAccepting(p0) != right.isAccepting(q0)) {
+            return new Result(false, "", pairs.size);
+        }
+
+        for (int head = 0; head < pairs.size; head++) {
+            int p = pairs.left[head];
+            int q = pairs.right[head];
+            if (p == DfaView.DEAD && q == DfaView.DEAD) {
+                continue;
+            }
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                int pNext = left.step(p, symbol);
+                int qNext = right.step(q, symbol);
+                if (!classes.union(leftCode(pNext), rightCode(qNext))) {
+                    continue;
+                }
+                int pair = pairs.add(pNext, qNext, head, symbol);
+                if (left.isAccepting(pNext) != right.isAccepting(qNext)) {
+                    return new Result(false, pairs.word(pair, symbols), pairs.size);
+                }
+            }
+        }
+        return new Result(true, null, pairs.size);
+    }
+
+    // Both sides share one union-find, DEAD gets the codes 0 and 1
+    private static int leftCode(int state) {
+        return 2 * (state + 1);
+    }
+
+    private static int rightCode(int state) {
+        return 2 * (state + 1) + 1;
+    }
+
+    public static class Result {
+        private final boolean equivalent;
+        private final String counterexample;
+        private final int exploredPairs;
+
+        Result(boolean equivalent, String counterexample, int exploredPairs) {
+            this.equivalent = equivalent;
+            this.counterexample = counterexample;
+            this.exploredPairs = exploredPairs;
+        }
+
+        public boolean isEquivalent() {
+            return equivalent;
+        }
+
+        // A shortest word accepted by exactly one of the automata, null if they are equivalent
+        public String getCounterexample() {
+            return counterexample;
+        }
+
+        public int getExploredPairs() {
+            return exploredPairs;
+        }
+    }
+
+    // Union by size with path halving over codes that grow as states are discovered
+    private static final class UnionFind {
+        private int[] parent = new int[64];
+        private int[] size = new int[64];
+        private int capacity;
+
+        private void ensure(int code) {
+            if (code >= parent.length) {
+                int length = Math.max(parent.length * 2, code + 1);
+                parent = Arrays.copyOf(parent, length);
+                size = Arrays.copyOf(size, length);
+            }
+            while (capacity <= code) {
+                parent[capacity] = capacity;
+                size[capacity] = 1;
+                capacity++;
+            }
+        }
+
+        int find(int code) {
+            ensure(code);
+            while (parent[code] != code) {
+                parent[code] = parent[parent[code]];
+                code = parent[code];
+            }
+            return code;
+        }
+
+        // Returns false if both were already in the same class
+        boolean union(int x, int y) {
+            int rootX = find(x);
+            int rootY = find(y);
+            if (rootX == rootY) {
+                return false;
+            }
+            if (size[rootX] < size[rootY]) {
+                int swap = rootX;
+                rootX = rootY;
+                rootY = swap;
+            }
+            parent[rootY] = rootX;
+            size[rootX] += size[rootY];
+            return true;
+        }
+    }
+
+    // Explored pairs in BFS order, each with the pair and symbol it was reached from
+    private static final class PairQueue {
+        int[] left = new int[64];
+        int[] right = new int[64];
+        int[] from = new int[64];
+        int[] symbol = new int[64];
+        int size;
+
+        int add(int p, int q, int fromPair, int viaSymbol) {
+            if (size == left.length) {
+                left = Arrays.copyOf(left, size * 2);
+                right = Arrays.copyOf(right, size * 2);
+                from = Arrays.copyOf(from, size * 2);
+                symbol = Arrays.copyOf(symbol, size * 2);
+            }
+            left[size] = p;
+            right[size] = q;
+            from[size] = fromPair;
+            symbol[size] = viaSymbol;
+            return size++;
+        }
+
+        String word(int pair, List<String> symbols) {
+            Deque<String> reversed = new ArrayDeque<>();
+            for (int i = pair; from[i] >= 0; i = from[i]) {
+                reversed.push(symbols.get(symbol[i]));
+            }
+            return String.join("", reversed);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package org.example.core;
+
+import java.util.*;
+
+// Force-directed layout (Fruchterman–Reingold): connected states attract each other like
+// springs, all states repel each other, and the maximum move per round (the temperature)
+// shrinks until the layout settles. Repulsion between all pairs would be O(n²) per round;
+// a Barnes–Hut quadtree makes it O(n log n) by treating far-away groups of states as a
+// single mass at their center.
+public final class ForceDirectedLayout extends GraphLayout {
+    // Ideal edge length
+    static final double SPACING = 150;
+    private static final int MAX_ROUNDS = 300;
+    // A cell is approximated if its size / distance is below THETA
+    private static final double THETA = 1.0;
+    private static final double GRAVITY = 1.0;
+    private static final double MIN_MOVE = 0.5;
+
+    private final double[] dispX;
+    private final double[] dispY;
+    private final QuadTree tree;
+    private final double cooling;
+    private double temperature;
+    private int round;
+
+    public ForceDirectedLayout(Automaton automaton) {
+        super(automaton);
+        this.dispX = new double[stateCount];
+        this.dispY = new double[stateCount];
+        this.tree = new QuadTree(stateCount);
+        this.temperature = 10 * SPACING;
+        // From 10 * SPACING down to MIN_MOVE within MAX_ROUNDS
+        this.cooling = Math.pow(MIN_MOVE / temperature, 1.0 / MAX_ROUNDS);
+        separateOverlapping();
+    }
+
+    // States on the same spot would never be pushed apart: spread them on a small spiral
+    private void separateOverlapping() {
+        Map<Long, Integer> seen = new HashMap<>();
+        for (int i = 0; i < stateCount; i++) {
+            long key = ((long) x[i] << 32) | ((long) y[i] & 0xFFFFFFFFL);
+            int count = seen.merge(key, 1, Integer::sum) - 1;
+            if (count > 0) {
+                double radius = 20 * Math.sqrt(count);
+                double angle = count * 2.399963; // golden angle
+                x[i] += radius * Math.cos(angle);
+                y[i] += radius * Math.sin(angle);
+            }
+        }
+    }
+
+    @Override
+    public boolean step() {
+        if (stateCount < 2 || round >= MAX_ROUNDS) {
+            return false;
+        }
+        Arrays.fill(dispX, 0);
+        Arrays.fill(dispY, 0);
+
+        // Repulsion k²/d through the tree
+        tree.build(x, y);
+        for (int i = 0; i < stateCount; i++) {
+            tree.repel(i, x, y, dispX, dispY);
+        }
+
+        // Attraction d²/k along every edge (each undirected edge once)
+        double centerX = 0;
+        double centerY = 0;
+        for (int i = 0; i < stateCount; i++) {
+            for (int e = neighbourStart[i]; e < neighbourStart[i + 1]; e++) {
+                int j = neighbours[e];
+                if (j < i) {
+                    continue;
+                }
+                double dx = x[i] - x[j];
+                double dy = y[i] - y[j];
+                double distance = Math.max(0.01, Math.sqrt(dx * dx + dy * dy));
+                double force = distance / SPACING; // (d² / k) / d
+                dispX[i] -= dx * force;
+                dispY[i] -= dy * force;
+                dispX[j] += dx * force;
+                dispY[j] += dy * force;
+            }
+            centerX += x[i];
+            centerY += y[i];
+        }
+        centerX /= stateCount;
+        centerY /= stateCount;
+
+        // Gravity keeps unconnected parts together; then move, at most by the temperature
+        double maxMove = 0;
+        for (int i = 0; i < stateCount; i++) {
+            double dx = dispX[i] - GRAVITY * (x[i] - centerX);
+            double dy = dispY[i] - GRAVITY * (y[i] - centerY);
+            double length = Math.sqrt(dx * dx + dy * dy);
+            if (length > 0) {
+                double move = Math.min(length, temperature);
+                x[i] += dx / length * move;
+                y[i] += dy / length * move;
+                maxMove = Math.max(maxMove, move);
+            }
+        }
+
+        temperature *= cooling;
+        round++;
+        return round < MAX_ROUNDS && maxMove >= MIN_MOVE;
+    }
+
+    // Point-region quadtree in flat arrays. Every node stores the number of states below it and
+    // the sum of their positions; a leaf holds one state (or several at the depth limit).
+    private static final class QuadTree {
+        private static final int MAX_DEPTH = 32;
+
+        private int[] count;
+        private double[] sumX;
+        private double[] sumY;
+        private double[] centerX;
+        private double[] centerY;
+        private double[] half;
+        private int[] body;        // the single state of a leaf, -1 otherwise
+        private int[] firstChild;  // index of four consecutive children, -1 for a leaf
+        private int size;
+        private int[] stack;
+
+        QuadTree(int stateCount) {
+            allocate(Math.max(16, 4 * stateCount));
+            this.stack = new int[64];
+        }
+
+        private void allocate(int capacity) {
+            count = new int[capacity];
+            sumX = new double[capacity];
+            sumY = new double[capacity];
+            centerX = new double[capacity];
+            centerY = new double[capacity];
+            half = new double[capacity];
+            body = new int[capacity];
+            firstChild = new int[capacity];
+        }
+
+        private void grow() {
+            int capacity = count.length * 2;
+            count = Arrays.copyOf(count, capacity);
+            sumX = Arrays.copyOf(sumX, capacity);
+            sumY = Arrays.copyOf(sumY, capacity);
+            centerX = Arrays.copyOf(centerX, capacity);
+            centerY = Arrays.copyOf(centerY, capacity);
+            half = Arrays.copyOf(half, capacity);
+            body = Arrays.copyOf(body, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+        }
+
+        private int newNode(double cx, double cy, double h) {
+            if (size == count.length) {
+                grow();
+            }
+            int node = size++;
+            count[node] = 0;
+            sumX[node] = 0;
+            sumY[node] = 0;
+            centerX[node] = cx;
+            centerY[node] = cy;
+            half[node] = h;
+            body[node] = -1;
+            firstChild[node] = -1;
+            return node;
+        }
+
+        void build(double[] x, double[] y) {
+            double minX = Double.MAX_VALUE;
+            double minY = Double.MAX_VALUE;
+            double maxX = -Double.MAX_VALUE;
+            double maxY = -Double.MAX_VALUE;
+            for (int i = 0; i < x.length; i++) {
+                minX = Math.min(minX, x[i]);
+                minY = Math.min(minY, y[i]);
+                maxX = Math.max(maxX, x[i]);
+                maxY = Math.max(maxY, y[i]);
+            }
+            size = 0;
+            newNode((minX + maxX) / 2, (minY + maxY) / 2, Math.max(maxX - minX, maxY - minY) / 2 + 1);
+            for (int i = 0; i < x.length; i++) {
+                insert(i, x, y);
+            }
+        }
+
+        private void insert(int i, double[] x, double[] y) {
+            int node = 0;
+            for (int depth = 0; ; depth++) {
+                if (count[node] == 0) {
+                    count[node] = 1;
+                    sumX[node] = x[i];
+                    sumY[node] = y[i];
+                    body[node] = i;
+                    return;
+                }
+                if (firstChild[node] < 0) {
+                    if (depth == MAX_DEPTH) {
+                        // Practically the same spot: keep them together in this leaf
+                        count[node]++;
+                        sumX[node] += x[i];
+                        sumY[node] += y[i];
+                        body[node] = -1;
+                        return;
+                    }
+                    split(node, x, y);
+                }
+                count[node]++;
+                sumX[node] += x[i];
+                sumY[node] += y[i];
+                node = firstChild[node] + quadrant(node, x[i], y[i]);
+            }
+        }
+
+        // Turns a leaf with one state into an inner node, moving the state into a child
+        private void split(int node, double[] x, double[] y) {
+            double h = half[node] / 2;
+            int first = newNode(centerX[node] - h, centerY[node] - h, h);
+            newNode(centerX[node] + h, centerY[node] - h, h);
+            newNode(centerX[node] - h, centerY[node] + h, h);
+            newNode(centerX[node] + h, centerY[node] + h, h);
+            firstChild[node] = first;
+
+            int old = body[node];
+            body[node] = -1;
+            int child = first + quadrant(node, x[old], y[old]);
+            count[child] = 1;
+            sumX[child] = x[old];
+            sumY[child] = y[old];
+            body[child] = old;
+        }
+
+        private int quadrant(int node, double px, double py) {
+            return (px >= centerX[node] ? 1 : 0) + (py >= centerY[node] ? 2 : 0);
+        }
+
+        // Adds the repulsion of all other states on state i to its displacement
+        void repel(int i, double[] x, double[] y, double[] dispX, double[] dispY) {
+            double k2 = SPACING * SPACING;
+            int top = 0;
+            stack[top++] = 0;
+            while (top > 0) {
+                int node = stack[--top];
+                if (count[node] == 0 || body[node] == i) {
+                    continue;
+                }
+                double dx = x[i] - sumX[node] / count[node];
+                double dy = y[i] - sumY[node] / count[node];
+                double d2 = dx * dx + dy * dy;
+                double width = 2 * half[node];
+                if (firstChild[node] < 0 || width * width < THETA * THETA * d2) {
+                    if (d2 < 1e-4) {
+                        // Own aggregated leaf, or states on top of each other
+                        continue;
+                    }
+                    double force = count[node] * k2 / d2; // (k² / d) / d
+                    dispX[i] += dx * force;
+                    dispY[i] += dy * force;
+                } else {
+                    if (top + 4 > stack.length) {
+                        stack = Arrays.copyOf(stack, stack.length * 2);
+                    }
+                    int first = firstChild[node];
+                    stack[top++] = first;
+                    stack[top++] = first + 1;
+                    stack[top++] = first + 2;
+                    stack[top++] = first + 3;
+                }
+            }
+        }
+    }
+}
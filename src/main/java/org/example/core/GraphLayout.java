@@ -0,0 +1,114 @@
+package org.example.core;
+
+import java.awt.Point;
+import java.util.*;
+
+// Base of the automatic layouts. The graph is copied out of the Automaton when the layout is
+// created, so step() can run on a background thread while the automaton stays editable.
+// Positions are only written back by the caller, through getStates() and copyPositions().
+public abstract class GraphLayout {
+    // Distance of the top-left state from the origin
+    static final int MARGIN = 100;
+
+    final List<State> states;
+    final int stateCount;
+    final int initial; // -1 if there is no initial state
+    // Directed successors and undirected neighbours, both without self-loops and duplicates (CSR)
+    final int[] successorStart;
+    final int[] successors;
+    final int[] neighbourStart;
+    final int[] neighbours;
+    final double[] x;
+    final double[] y;
+
+    GraphLayout(Automaton automaton) {
+        this.states = new ArrayList<>(automaton.getStates());
+        this.stateCount = states.size();
+        // By identity: states are equal by id, and ids can be edited
+        Map<State, Integer> index = new IdentityHashMap<>();
+        for (int i = 0; i < stateCount; i++) {
+            index.put(states.get(i), i);
+        }
+        State initialState = automaton.getInitialState();
+        Integer initialIndex = initialState == null ? null : index.get(initialState);
+        this.initial = initialIndex == null ? -1 : initialIndex;
+
+        List<Set<Integer>> out = new ArrayList<>(stateCount);
+        List<Set<Integer>> both = new ArrayList<>(stateCount);
+        for (int i = 0; i < stateCount; i++) {
+            out.add(new LinkedHashSet<>());
+            both.add(new LinkedHashSet<>());
+        }
+        for (Transition t : automaton.getTransitions()) {
+            Integer from = index.get(t.getFromState());
+            Integer to = index.get(t.getToState());
+            if (from != null && to != null && !from.equals(to)) {
+                out.get(from).add(to);
+                both.get(from).add(to);
+                both.get(to).add(from);
+            }
+        }
+        this.successorStart = new int[stateCount + 1];
+        this.successors = flatten(out, successorStart);
+        this.neighbourStart = new int[stateCount + 1];
+        this.neighbours = flatten(both, neighbourStart);
+
+        this.x = new double[stateCount];
+        this.y = new double[stateCount];
+        for (int i = 0; i < stateCount; i++) {
+            Point pos = states.get(i).getPosition();
+            x[i] = pos.x;
+            y[i] = pos.y;
+        }
+    }
+
+    private static int[] flatten(List<Set<Integer>> lists, int[] start) {
+        int total = 0;
+        for (int i = 0; i < lists.size(); i++) {
+            start[i] = total;
+            total += lists.get(i).size();
+        }
+        start[lists.size()] = total;
+        int[] result = new int[total];
+        int k = 0;
+        for (Set<Integer> list : lists) {
+            for (int value : list) {
+                result[k++] = value;
+            }
+        }
+        return result;
+    }
+
+    // States in the order of the position arrays
+    public List<State> getStates() {
+        return Collections.unmodifiableList(states);
+    }
+
+    public int getStateCount() {
+        return stateCount;
+    }
+
+    // Performs one round of the layout; returns false once the layout is finished
+    public abstract boolean step();
+
+    // Runs the layout to the end
+    public void run() {
+        while (step()) {
+            // nothing to do between rounds
+        }
+    }
+
+    // Current positions, moved so the top-left state lies at (MARGIN, MARGIN)
+    public void copyPositions(int[] xs, int[] ys) {
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        for (int i = 0; i < stateCount; i++) {
+            minX = Math.min(minX, x[i]);
+            minY = Math.min(minY, y[i]);
+        }
+        for (int i = 0; i < stateCount; i++) {
+            xs[i] = (int) Math.round(x[i] - minX) + MARGIN;
+            ys[i] = (int) Math.round(y[i] - minY) + MARGIN;
+        }
+    }
+}
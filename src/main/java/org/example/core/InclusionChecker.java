@@ -0,0 +1,168 @@
+package org.example.core;
+
+import java.util.*;
+
+// Decides whether L(a) ⊆ L(b) for NEAs without determinizing b completely (antichain algorithm).
+// The search runs over pairs (state of a, set of states of b) reached by the same word; a pair
+// with a final state of a and no final state of b is a counterexample. A pair (p, S) is not
+// explored if some (p, S') with S' ⊆ S is already known: every word that fails from (p, S)
+// fails from (p, S') as well. So only the minimal sets per state of a are kept (the antichain),
+// and pairs that become non-minimal are dropped from the worklist.
+public class InclusionChecker {
+
+    public Result check(Automaton a, Automaton b) {
+        // The same languages simulate() and EquivalenceChecker see, also for DEA-mode automata
+        CompiledNfa left = a.getEngineNfa();
+        CompiledNfa right = b.getEngineNfa();
+        SymbolTable symbols = left.getSymbolTable();
+        int symbolCount = symbols.size();
+        int[] symbolMap = new int[symbolCount];
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            symbolMap[symbol] = b.getAlphabet().idOf(symbols.getSymbol(symbol));
+        }
+
+        StateSetTable sets = new StateSetTable(right.getWordCount());
+        Antichain antichain = new Antichain(left.getStateCount(), sets);
+        long[] initial = left.newStateSet();
+        long[] set = right.newStateSet();
+        left.copyInitialStates(initial);
+        right.copyInitialStates(set);
+
+        for (int w = 0; w < initial.length; w++) {
+            long bits = initial[w];
+            while (bits != 0) {
+                int p = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                int node = antichain.add(p, set, -1, -1);
+                if (node >= 0 && left.isFinal(p) && !right.isAccepting(set)) {
+                    return new Result(antichain.word(node, symbols), antichain.size);
+                }
+            }
+        }
+
+        long[] next = right.newStateSet();
+        for (int node = 0; node < antichain.size; node++) {
+            if (antichain.removed[node]) {
+                continue;
+            }
+            int p = antichain.state[node];
+            sets.copyTo(antichain.set[node], set);
+
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                long[] successors = left.getSuccessors(p, symbol);
+                if (successors == null) {
+                    continue;
+                }
+                right.step(set, symbolMap[symbol], next);
+
+                for (int w = 0; w < successors.length; w++) {
+                    long bits = successors[w];
+                    while (bits != 0) {
+                        int q = (w << 6) + Long.numberOfTrailingZeros(bits);
+                        bits &= bits - 1;
+                        int added = antichain.add(q, next, node, symbol);
+                        if (added >= 0 && left.isFinal(q) && !right.isAccepting(next)) {
+                            return new Result(antichain.word(added, symbols), antichain.size);
+                        }
+                    }
+                }
+            }
+        }
+        return new Result(null, antichain.size);
+    }
+
+    public static class Result {
+        private final String counterexample;
+        private final int exploredPairs;
+
+        Result(String counterexample, int exploredPairs) {
+            this.counterexample = counterexample;
+            this.exploredPairs = exploredPairs;
+        }
+
+        public boolean isIncluded() {
+            return counterexample == null;
+        }
+
+        // A word accepted by the first automaton but not by the second, null if included
+        public String getCounterexample() {
+            return counterexample;
+        }
+
+        public int getExploredPairs() {
+            return exploredPairs;
+        }
+    }
+
+    // All pairs ever added (the worklist, in BFS order) plus, per state of a, the ids of the
+    // pairs that are still minimal
+    private static final class Antichain {
+        private final StateSetTable sets;
+        private final int[][] members;
+        private final int[] memberCount;
+        int[] state = new int[64];
+        int[] set = new int[64];
+        int[] parent = new int[64];
+        int[] symbol = new int[64];
+        boolean[] removed = new boolean[64];
+        int size;
+
+        Antichain(int stateCount, StateSetTable sets) {
+            this.sets = sets;
+            this.members = new int[stateCount][];
+            this.memberCount = new int[stateCount];
+        }
+
+        // Returns the new pair, or -1 if it is subsumed by a known one
+        int add(int p, long[] stateSet, int fromPair, int viaSymbol) {
+            int[] chain = members[p];
+            int count = memberCount[p];
+            for (int i = 0; i < count; i++) {
+                if (sets.isSubsetOf(set[chain[i]], stateSet)) {
+                    return -1;
+                }
+            }
+
+            // Drop the pairs the new one subsumes
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                if (sets.isSupersetOf(set[chain[i]], stateSet)) {
+                    removed[chain[i]] = true;
+                } else {
+                    chain[kept++] = chain[i];
+                }
+            }
+
+            int node = size++;
+            if (node == state.length) {
+                state = Arrays.copyOf(state, node * 2);
+                set = Arrays.copyOf(set, node * 2);
+                parent = Arrays.copyOf(parent, node * 2);
+                symbol = Arrays.copyOf(symbol, node * 2);
+                removed = Arrays.copyOf(removed, node * 2);
+            }
+            state[node] = p;
+            set[node] = sets.intern(stateSet);
+            parent[node] = fromPair;
+            symbol[node] = viaSymbol;
+
+            if (chain == null) {
+                chain = new int[4];
+            } else if (kept == chain.length) {
+                chain = Arrays.copyOf(chain, kept * 2);
+            }
+            chain[kept++] = node;
+            members[p] = chain;
+            memberCount[p] = kept;
+            return node;
+        }
+
+        String word(int node, SymbolTable symbols) {
+            Deque<String> reversed = new ArrayDeque<>();
+            for (int i = node; parent[i] >= 0; i = parent[i]) {
+                reversed.push(symbols.getSymbol(symbol[i]));
+            }
+            return String.join("", reversed);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package org.example.core;
+
+import java.util.*;
+
+// Questions about the accepted language, answered on the integer graph of a CompiledNfa.
+// The graph without symbols (state -> distinct successor states) is built once in CSR form in
+// both directions; emptiness and finiteness are then linear searches over it. Words are
+// enumerated over state sets, so they are also correct for NEAs and never repeat.
+public final class LanguageQueries {
+    private final CompiledNfa nfa;
+    private final int stateCount;
+    private final int symbolCount;
+    private final int words;
+    private final int[] forwardStart;
+    private final int[] forward;
+    private final int[] backwardStart;
+    private final int[] backward;
+    // Length of the shortest path to a final state, -1 if there is none
+    private final int[] distance;
+    // Symbol ids in lexicographic order of their symbols
+    private final int[] symbolOrder;
+    private Boolean finite;
+
+    public LanguageQueries(CompiledNfa nfa) {
+        this.nfa = nfa;
+        this.stateCount = nfa.getStateCount();
+        this.symbolCount = nfa.getSymbolTable().size();
+        this.words = nfa.getWordCount();
+
+        // Forward CSR: the union of all successor sets of a state
+        long[] targets = nfa.newStateSet();
+        int[] start = new int[stateCount + 1];
+        int[] edges = new int[Math.max(16, stateCount)];
+        int edgeCount = 0;
+        for (int s = 0; s < stateCount; s++) {
+            Arrays.fill(targets, 0L);
+            for (int a = 0; a < symbolCount; a++) {
+                long[] successors = nfa.getSuccessors(s, a);
+                if (successors != null) {
+                    for (int w = 0; w < words; w++) {
+                        targets[w] |= successors[w];
+                    }
+                }
+            }
+            for (int w = 0; w < words; w++) {
+                long bits = targets[w];
+                while (bits != 0) {
+                    if (edgeCount == edges.length) {
+                        edges = Arrays.copyOf(edges, edgeCount * 2);
+                    }
+                    edges[edgeCount++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                }
+            }
+            start[s + 1] = edgeCount;
+        }
+        this.forwardStart = start;
+        this.forward = edges;
+
+        // Backward CSR by counting sort over the targets
+        int[] backStart = new int[stateCount + 1];
+        for (int i = 0; i < edgeCount; i++) {
+            backStart[edges[i] + 1]++;
+        }
+        for (int s = 0; s < stateCount; s++) {
+            backStart[s + 1] += backStart[s];
+        }
+        int[] back = new int[edgeCount];
+        int[] fill = Arrays.copyOf(backStart, stateCount);
+        for (int s = 0; s < stateCount; s++) {
+            for (int i = start[s]; i < start[s + 1]; i++) {
+                back[fill[edges[i]]++] = s;
+            }
+        }
+        this.backwardStart = backStart;
+        this.backward = back;
+
+        this.distance = distancesToFinal();
+
+        Integer[] order = new Integer[symbolCount];
+        for (int a = 0; a < symbolCount; a++) {
+            order[a] = a;
+        }
+        SymbolTable symbols = nfa.getSymbolTable();
+        Arrays.sort(order, Comparator.comparing(symbols::getSymbol));
+        this.symbolOrder = new int[symbolCount];
+        for (int a = 0; a < symbolCount; a++) {
+            symbolOrder[a] = order[a];
+        }
+    }
+
+    private int[] distancesToFinal() {
+        int[] dist = new int[stateCount];
+        Arrays.fill(dist, -1);
+        int[] queue = new int[stateCount];
+        int tail = 0;
+        for (int s = 0; s < stateCount; s++) {
+            if (nfa.isFinal(s)) {
+                dist[s] = 0;
+                queue[tail++] = s;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int t = queue[head];
+            for (int i = backwardStart[t]; i < backwardStart[t + 1]; i++) {
+                int s = backward[i];
+                if (dist[s] < 0) {
+                    dist[s] = dist[t] + 1;
+                    queue[tail++] = s;
+                }
+            }
+        }
+        return dist;
+    }
+
+    // Length of the shortest accepted word, -1 if the language is empty
+    public int getShortestLength() {
+        long[] initial = nfa.newStateSet();
+        nfa.copyInitialStates(initial);
+        int shortest = -1;
+        for (int s = nextState(initial, 0); s >= 0; s = nextState(initial, s + 1)) {
+            if (distance[s] >= 0 && (shortest < 0 || distance[s] < shortest)) {
+                shortest = distance[s];
+            }
+        }
+        return shortest;
+    }
+
+    public boolean isEmpty() {
+        return getShortestLength() < 0;
+    }
+
+    // Infinite exactly if a cycle runs through states that are reachable and can still accept
+    public boolean isFinite() {
+        if (finite == null) {
+            finite = !hasUsefulCycle();
+        }
+        return finite;
+    }
+
+    private boolean hasUsefulCycle() {
+        boolean[] useful = new boolean[stateCount];
+        int[] queue = new int[stateCount];
+        int tail = 0;
+        long[] initial = nfa.newStateSet();
+        nfa.copyInitialStates(initial);
+        for (int s = nextState(initial, 0); s >= 0; s = nextState(initial, s + 1)) {
+            if (distance[s] >= 0) {
+                useful[s] = true;
+                queue[tail++] = s;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int s = queue[head];
+            for (int i = forwardStart[s]; i < forwardStart[s + 1]; i++) {
+                int t = forward[i];
+                if (!useful[t] && distance[t] >= 0) {
+                    useful[t] = true;
+                    queue[tail++] = t;
+                }
+            }
+        }
+
+        // Kahn's algorithm on the useful subgraph: states left over lie on or behind a cycle
+        int[] inDegree = new int[stateCount];
+        for (int k = 0; k < tail; k++) {
+            int s = queue[k];
+            for (int i = forwardStart[s]; i < forwardStart[s + 1]; i++) {
+                if (useful[forward[i]]) {
+                    inDegree[forward[i]]++;
+                }
+            }
+        }
+        int[] ready = new int[tail];
+        int readyCount = 0;
+        for (int k = 0; k < tail; k++) {
+            if (inDegree[queue[k]] == 0) {
+                ready[readyCount++] = queue[k];
+            }
+        }
+        int removed = 0;
+        while (readyCount > 0) {
+            int s = ready[--readyCount];
+            removed++;
+            for (int i = forwardStart[s]; i < forwardStart[s + 1]; i++) {
+                int t = forward[i];
+                if (useful[t] && --inDegree[t] == 0) {
+                    ready[readyCount++] = t;
+                }
+            }
+        }
+        return removed < tail;
+    }
+
+    // The first 'count' accepted words in shortlex order (by length, then lexicographically).
+    // For each length L, a depth-first search in symbol order only enters state sets that can
+    // still reach a final state in exactly the remaining number of steps, so every branch ends
+    // in a word and the work is proportional to the output.
+    public List<String> getShortestWords(int count) {
+        List<String> result = new ArrayList<>();
+        int shortest = getShortestLength();
+        if (count <= 0 || shortest < 0) {
+            return result;
+        }
+
+        // exact.get(r): states with a path of exactly r symbols to a final state
+        List<long[]> exact = new ArrayList<>();
+        long[] finals = nfa.newStateSet();
+        for (int s = 0; s < stateCount; s++) {
+            if (nfa.isFinal(s)) {
+                finals[s >>> 6] |= 1L << s;
+            }
+        }
+        exact.add(finals);
+
+        // A finite language has no word longer than the number of states
+        for (int length = shortest; result.size() < count; length++) {
+            if (isFinite() && length >= stateCount) {
+                break;
+            }
+            while (exact.size() <= length) {
+                exact.add(predecessors(exact.get(exact.size() - 1)));
+            }
+            collectWords(length, exact, count, result);
+        }
+        return result;
+    }
+
+    private long[] predecessors(long[] set) {
+        long[] result = nfa.newStateSet();
+        for (int t = nextState(set, 0); t >= 0; t = nextState(set, t + 1)) {
+            for (int i = backwardStart[t]; i < backwardStart[t + 1]; i++) {
+                int s = backward[i];
+                result[s >>> 6] |= 1L << s;
+            }
+        }
+        return result;
+    }
+
+    // Iterative DFS over words of exactly 'length' symbols
+    private void collectWords(int length, List<long[]> exact, int count, List<String> result) {
+        SymbolTable symbols = nfa.getSymbolTable();
+        long[][] sets = new long[length + 1][words];
+        int[] choice = new int[length + 1];
+        nfa.copyInitialStates(sets[0]);
+        if (!intersects(sets[0], exact.get(length))) {
+            return;
+        }
+
+        int depth = 0;
+        choice[0] = 0;
+        while (depth >= 0) {
+            if (depth == length) {
+                StringBuilder word = new StringBuilder();
+                for (int i = 0; i < length; i++) {
+                    word.append(symbols.getSymbol(symbolOrder[choice[i] - 1]));
+                }
+                result.add(word.toString());
+                if (result.size() == count) {
+                    return;
+                }
+                depth--;
+                continue;
+            }
+
+            boolean descended = false;
+            long[] required = exact.get(length - depth - 1);
+            while (choice[depth] < symbolCount) {
+                int symbol = symbolOrder[choice[depth]++];
+                if (nfa.step(sets[depth], symbol, sets[depth + 1]) && intersects(sets[depth + 1], required)) {
+                    depth++;
+                    choice[depth] = 0;
+                    descended = true;
+                    break;
+                }
+            }
+            if (!descended) {
+                depth--;
+            }
+        }
+    }
+
+    private boolean intersects(long[] a, long[] b) {
+        for (int w = 0; w < words; w++) {
+            if ((a[w] & b[w]) != 0L) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Index of the first state in the set at or after 'from', -1 if there is none
+    private int nextState(long[] set, int from) {
+        int w = from >>> 6;
+        if (w >= words) {
+            return -1;
+        }
+        long bits = set[w] & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            if (++w == words) {
+                return -1;
+            }
+            bits = set[w];
+        }
+    }
+}
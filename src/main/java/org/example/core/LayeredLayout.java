@@ -0,0 +1,153 @@
+package org.example.core;
+
+import java.util.*;
+
+// Layered layout in the style of Sugiyama, reading from left to right:
+// 1. Layers: breadth-first distance from the initial state along the transitions, so every
+//    state sits one column right of its earliest predecessor. States not reachable from there
+//    start new searches in layer 0.
+// 2. Crossing reduction: the barycenter heuristic, sweeping alternately left to right and right
+//    to left; each state is ordered by the average position of its neighbours in the layer
+//    before it. One sweep per step(), until the order no longer changes.
+// 3. Coordinates: fixed spacing, every layer centered on the tallest one.
+// Edges spanning several layers get no dummy nodes; they only count where they end.
+public final class LayeredLayout extends GraphLayout {
+    static final int LAYER_SPACING = 180;
+    static final int ROW_SPACING = 120;
+    private static final int MAX_SWEEPS = 24;
+
+    private final int[] layer;
+    private final int[] discovery;  // states in the order the searches reached them
+    private final int[][] layers;   // states of each layer, in order
+    private final int[] order;      // position of each state within its layer
+    private final double[] barycenter;
+    private int sweep;
+
+    public LayeredLayout(Automaton automaton) {
+        super(automaton);
+        this.discovery = new int[stateCount];
+        this.layer = assignLayers();
+        int layerCount = 0;
+        for (int i = 0; i < stateCount; i++) {
+            layerCount = Math.max(layerCount, layer[i] + 1);
+        }
+
+        // Initial order: discovery order of the searches
+        int[] sizes = new int[layerCount];
+        for (int i = 0; i < stateCount; i++) {
+            sizes[layer[i]]++;
+        }
+        this.layers = new int[layerCount][];
+        for (int l = 0; l < layerCount; l++) {
+            layers[l] = new int[sizes[l]];
+        }
+        this.order = new int[stateCount];
+        int[] fill = new int[layerCount];
+        for (int s : discovery) {
+            order[s] = fill[layer[s]];
+            layers[layer[s]][fill[layer[s]]++] = s;
+        }
+        this.barycenter = new double[stateCount];
+        assignCoordinates();
+    }
+
+    private int[] assignLayers() {
+        int[] result = new int[stateCount];
+        Arrays.fill(result, -1);
+        int tail = 0;
+        int next = 0;
+        int root = initial >= 0 ? initial : 0;
+        while (tail < stateCount) {
+            if (result[root] < 0) {
+                result[root] = 0;
+                discovery[tail++] = root;
+                for (int head = tail - 1; head < tail; head++) {
+                    int s = discovery[head];
+                    for (int e = successorStart[s]; e < successorStart[s + 1]; e++) {
+                        int t = successors[e];
+                        if (result[t] < 0) {
+                            result[t] = result[s] + 1;
+                            discovery[tail++] = t;
+                        }
+                    }
+                }
+            }
+            while (next < stateCount && result[next] >= 0) {
+                next++;
+            }
+            root = next;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean step() {
+        if (sweep >= MAX_SWEEPS || layers.length < 2) {
+            return false;
+        }
+        boolean forward = sweep % 2 == 0;
+        boolean changed = false;
+        if (forward) {
+            for (int l = 1; l < layers.length; l++) {
+                changed |= reorder(l, l - 1);
+            }
+        } else {
+            for (int l = layers.length - 2; l >= 0; l--) {
+                changed |= reorder(l, l + 1);
+            }
+        }
+        sweep++;
+        assignCoordinates();
+        // Both directions have to be stable before stopping
+        return sweep < MAX_SWEEPS && (changed || sweep == 1);
+    }
+
+    // Sorts layer l by the barycenters of each state's neighbours in the fixed layer
+    private boolean reorder(int l, int fixed) {
+        int[] states = layers[l];
+        for (int s : states) {
+            double sum = 0;
+            int count = 0;
+            for (int e = neighbourStart[s]; e < neighbourStart[s + 1]; e++) {
+                int t = neighbours[e];
+                if (layer[t] == fixed) {
+                    sum += order[t];
+                    count++;
+                }
+            }
+            // States without neighbours there keep their place
+            barycenter[s] = count > 0 ? sum / count : order[s];
+        }
+
+        Integer[] sorted = new Integer[states.length];
+        for (int i = 0; i < states.length; i++) {
+            sorted[i] = states[i];
+        }
+        // Stable, so ties keep the current order
+        Arrays.sort(sorted, Comparator.comparingDouble(s -> barycenter[s]));
+        boolean changed = false;
+        for (int i = 0; i < states.length; i++) {
+            if (states[i] != sorted[i]) {
+                changed = true;
+            }
+            states[i] = sorted[i];
+            order[states[i]] = i;
+        }
+        return changed;
+    }
+
+    private void assignCoordinates() {
+        int tallest = 0;
+        for (int[] states : layers) {
+            tallest = Math.max(tallest, states.length);
+        }
+        for (int l = 0; l < layers.length; l++) {
+            double offset = (tallest - layers[l].length) / 2.0;
+            for (int i = 0; i < layers[l].length; i++) {
+                int s = layers[l][i];
+                x[s] = l * LAYER_SPACING;
+                y[s] = (i + offset) * ROW_SPACING;
+            }
+        }
+    }
+}
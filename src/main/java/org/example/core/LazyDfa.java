@@ -0,0 +1,199 @@
+package org.example.core;
+
+import java.util.*;
+
+// DEA built on the fly from a CompiledNfa while input is read.
+// Each DEA state is a subset of NEA states interned in a StateSetTable; its transitions are
+// filled in the first time they are taken. When the cache reaches maxStates it is flushed
+// completely and rebuilt from the current state, so memory stays bounded.
+// Not thread-safe: use one instance per thread.
+public final class LazyDfa {
+    public static final int DEAD = -1;
+    private static final int UNKNOWN = -2;
+
+    private final CompiledNfa nfa;
+    private final int symbolCount;
+    private final int maxStates;
+    private final StateSetTable cache;
+    private final long[] current;
+    private final long[] next;
+    private int[] table;
+    private boolean[] accepting;
+    private int initialState = UNKNOWN;
+    private int flushCount;
+
+    public LazyDfa(CompiledNfa nfa, int maxStates) {
+        if (maxStates < 2) {
+            throw new IllegalArgumentException("maxStates must be at least 2");
+        }
+        this.nfa = nfa;
+        this.symbolCount = nfa.getSymbolTable().size();
+        // The transition table has to fit into one array; beyond that the cache is flushed
+        this.maxStates = (int) Math.min(maxStates, (Integer.MAX_VALUE - 8L) / Math.max(1, symbolCount));
+        this.cache = new StateSetTable(nfa.getWordCount());
+        this.current = nfa.newStateSet();
+        this.next = nfa.newStateSet();
+        int capacity = Math.min(this.maxStates, 64);
+        this.table = new int[capacity * symbolCount];
+        this.accepting = new boolean[capacity];
+    }
+
+    public CompiledNfa getNfa() {
+        return nfa;
+    }
+
+    public int getMaxStates() {
+        return maxStates;
+    }
+
+    public int getCachedStateCount() {
+        return cache.size();
+    }
+
+    // How often the cache was full and had to be thrown away
+    public int getFlushCount() {
+        return flushCount;
+    }
+
+    public int getInitialState() {
+        if (initialState == UNKNOWN) {
+            nfa.copyInitialStates(current);
+            int id = cache.indexOf(current);
+            initialState = id != StateSetTable.NOT_FOUND ? id : add(current);
+        }
+        return initialState;
+    }
+
+    public boolean isAccepting(int state) {
+        return state != DEAD && accepting[state];
+    }
+
+    // Copies the NEA states of a cached DEA state into 'target'
+    public void copyStates(int state, long[] target) {
+        cache.copyTo(state, target);
+    }
+
+    // Note: a flush renumbers the cache, so ids from before a flush must not be reused
+    public int step(int state, int symbol) {
+        if (state == DEAD || symbol == SymbolTable.NO_SYMBOL) {
+            return DEAD;
+        }
+        int target = table[state * symbolCount + symbol];
+        return target != UNKNOWN ? target : computeStep(state, symbol);
+    }
+
+    public boolean accepts(CharSequence input) {
+        SymbolTable symbols = nfa.getSymbolTable();
+        int state = getInitialState();
+
+        int length = input.length();
+        for (int i = 0; i < length; i++) {
+            int symbol = symbols.idOf(input.charAt(i));
+            if (symbol == SymbolTable.NO_SYMBOL) {
+                return false;
+            }
+            int target = table[state * symbolCount + symbol];
+            if (target == UNKNOWN) {
+                target = computeStep(state, symbol);
+            }
+            if (target == DEAD) {
+                return false;
+            }
+            state = target;
+        }
+
+        return accepting[state];
+    }
+
+    private int computeStep(int state, int symbol) {
+        cache.copyTo(state, current);
+        if (!nfa.step(current, symbol, next)) {
+            table[state * symbolCount + symbol] = DEAD;
+            return DEAD;
+        }
+
+        int target = cache.indexOf(next);
+        if (target == StateSetTable.NOT_FOUND) {
+            if (cache.size() >= maxStates) {
+                // The flush renumbers the cache: the source state needs a new id as well
+                flush();
+                state = add(current);
+            }
+            target = add(next);
+        }
+        table[state * symbolCount + symbol] = target;
+        return target;
+    }
+
+    // Adds a set that is not cached yet. If the cache is full it is flushed first, so no id
+    // reaches maxStates; callers holding ids from before have to re-add their sets.
+    private int add(long[] set) {
+        if (cache.size() >= maxStates) {
+            flush();
+        }
+        int id = cache.intern(set);
+        if (id == accepting.length) {
+            // At most maxStates * symbolCount entries, which the constructor keeps below the array limit
+            int capacity = (int) Math.min(maxStates, accepting.length * 2L);
+            accepting = Arrays.copyOf(accepting, capacity);
+            table = Arrays.copyOf(table, (int) ((long) capacity * symbolCount));
+        }
+        accepting[id] = nfa.isAccepting(set);
+        Arrays.fill(table, id * symbolCount, (id + 1) * symbolCount, UNKNOWN);
+        return id;
+    }
+
+    private void flush() {
+        cache.clear();
+        initialState = UNKNOWN;
+        flushCount++;
+    }
+
+    // Sessions share this instance's cache, so use only one session at a time
+    public AcceptanceSession newSession() {
+        return new Session();
+    }
+
+    private final class Session extends AcceptanceSession {
+        private final SymbolTable symbols = nfa.getSymbolTable();
+        private int state = getInitialState();
+
+        @Override
+        protected void consume(char c) {
+            state = step(state, symbols.idOf(c));
+        }
+
+        @Override
+        protected void consume(char[] chunk, int offset, int length) {
+            int s = state;
+            for (int i = offset; i < offset + length && s != DEAD; i++) {
+                s = step(s, symbols.idOf(chunk[i]));
+            }
+            state = s;
+        }
+
+        @Override
+        protected void consume(CharSequence chunk, int from, int to) {
+            int s = state;
+            for (int i = from; i < to && s != DEAD; i++) {
+                s = step(s, symbols.idOf(chunk.charAt(i)));
+            }
+            state = s;
+        }
+
+        @Override
+        public boolean isAccepting() {
+            return LazyDfa.this.isAccepting(state);
+        }
+
+        @Override
+        public boolean isDead() {
+            return state == DEAD;
+        }
+
+        @Override
+        protected void restart() {
+            state = getInitialState();
+        }
+    }
+}
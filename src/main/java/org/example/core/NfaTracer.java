@@ -0,0 +1,166 @@
+package org.example.core;
+
+import java.util.*;
+
+// Finds one run of a NEA over an input without enumerating paths.
+// The forward pass only keeps the state sets (frontiers) after each character as bitsets;
+// the backward pass then picks, for every position, one predecessor in the previous frontier.
+// With a checkpoint interval K only every K-th frontier is stored and the others are
+// recomputed segment by segment during the backward pass, trading time for memory.
+public class NfaTracer {
+    public static final int AUTOMATIC = 0;
+    // Frontier words kept in memory before AUTOMATIC switches to checkpointing (32 MB)
+    private static final long MAX_STORED_WORDS = 4L * 1024 * 1024;
+
+    private final CompiledNfa nfa;
+    private final int words;
+    private int checkpointInterval = AUTOMATIC;
+
+    public NfaTracer(CompiledNfa nfa) {
+        this.nfa = nfa;
+        this.words = nfa.getWordCount();
+    }
+
+    public int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    // 1 keeps every frontier, K > 1 keeps every K-th one, AUTOMATIC decides by input length
+    public void setCheckpointInterval(int checkpointInterval) {
+        if (checkpointInterval < 0) {
+            throw new IllegalArgumentException("checkpointInterval must not be negative");
+        }
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    // Returns the visited states: an accepting run if there is one, otherwise some run.
+    // If all runs block, the run ends at the last character that could still be read.
+    // ε-moves are not listed, so the run may start in the ε-closure of the initial state.
+    public List<State> trace(CharSequence input) {
+        int[] path = tracePath(input);
+        List<State> steps = new ArrayList<>(path.length);
+        for (int state : path) {
+            steps.add(nfa.getState(state));
+        }
+        return steps;
+    }
+
+    public int[] tracePath(CharSequence input) {
+        int length = input.length();
+        int interval = intervalFor(length);
+        SymbolTable symbols = nfa.getSymbolTable();
+
+        long[] checkpoints = new long[(length / interval + 1) * words];
+        long[] current = nfa.newStateSet();
+        long[] next = nfa.newStateSet();
+        nfa.copyInitialStates(current);
+        System.arraycopy(current, 0, checkpoints, 0, words);
+        if (isEmpty(current)) {
+            return new int[0];
+        }
+
+        // Forward pass, 'last' is the index of the last non-empty frontier
+        int last = 0;
+        for (int i = 0; i < length; i++) {
+            if (!nfa.step(current, symbols.idOf(input.charAt(i)), next)) {
+                break;
+            }
+            long[] swap = current;
+            current = next;
+            next = swap;
+            last = i + 1;
+            if (last % interval == 0) {
+                System.arraycopy(current, 0, checkpoints, (last / interval) * words, words);
+            }
+        }
+
+        int[] path = new int[last + 1];
+        path[last] = pickEndState(current);
+
+        // Backward pass over the frontiers, recomputing a segment whenever it is left
+        long[] segment = new long[interval * words];
+        int segmentStart = Integer.MAX_VALUE;
+        long[] previous = nfa.newStateSet();
+        for (int i = last; i > 0; i--) {
+            int index = i - 1;
+            if (index < segmentStart) {
+                segmentStart = (index / interval) * interval;
+                loadSegment(input, checkpoints, segment, segmentStart, index, interval);
+            }
+            System.arraycopy(segment, (index - segmentStart) * words, previous, 0, words);
+            path[index] = pickPredecessor(previous, symbols.idOf(input.charAt(index)), path[i]);
+        }
+
+        return path;
+    }
+
+    private int intervalFor(int length) {
+        if (checkpointInterval != AUTOMATIC) {
+            return checkpointInterval;
+        }
+        if ((long) (length + 1) * words <= MAX_STORED_WORDS) {
+            return 1;
+        }
+        return (int) Math.ceil(Math.sqrt(length + 1));
+    }
+
+    // Fills segment with the frontiers segmentStart..upTo, starting from the stored checkpoint
+    private void loadSegment(CharSequence input, long[] checkpoints, long[] segment,
+                             int segmentStart, int upTo, int interval) {
+        SymbolTable symbols = nfa.getSymbolTable();
+        System.arraycopy(checkpoints, (segmentStart / interval) * words, segment, 0, words);
+
+        long[] current = nfa.newStateSet();
+        long[] next = nfa.newStateSet();
+        System.arraycopy(segment, 0, current, 0, words);
+        for (int i = segmentStart; i < upTo; i++) {
+            nfa.step(current, symbols.idOf(input.charAt(i)), next);
+            System.arraycopy(next, 0, segment, (i + 1 - segmentStart) * words, words);
+            long[] swap = current;
+            current = next;
+            next = swap;
+        }
+    }
+
+    private int pickEndState(long[] frontier) {
+        int fallback = -1;
+        for (int w = 0; w < words; w++) {
+            long bits = frontier[w];
+            while (bits != 0) {
+                int state = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (nfa.isFinal(state)) {
+                    return state;
+                }
+                if (fallback < 0) {
+                    fallback = state;
+                }
+            }
+        }
+        return fallback;
+    }
+
+    private int pickPredecessor(long[] frontier, int symbol, int target) {
+        for (int w = 0; w < words; w++) {
+            long bits = frontier[w];
+            while (bits != 0) {
+                int state = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                long[] successors = nfa.getSuccessors(state, symbol);
+                if (successors != null && (successors[target >>> 6] & (1L << target)) != 0) {
+                    return state;
+                }
+            }
+        }
+        throw new IllegalStateException("No predecessor for state " + target);
+    }
+
+    private boolean isEmpty(long[] set) {
+        for (long word : set) {
+            if (word != 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.core;
+
+import java.util.*;
+
+// Interns pairs of int states and numbers them densely, like StateSetTable does for sets.
+// A pair is packed into one long key and stored in an open-addressing table of primitives,
+// so millions of pairs need no boxed objects.
+public final class PairTable {
+    public static final int NOT_FOUND = -1;
+
+    private long[] keys;  // by id
+    private int[] slots;  // id + 1, 0 = empty
+    private int size;
+
+    public PairTable() {
+        this.keys = new long[16];
+        this.slots = new int[32];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int indexOf(int left, int right) {
+        long key = pack(left, right);
+        int mask = slots.length - 1;
+        for (int slot = hash(key) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slots[slot] - 1] == key) {
+                return slots[slot] - 1;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    // Returns the id of the pair, adding it if it is new
+    public int intern(int left, int right) {
+        long key = pack(left, right);
+        int mask = slots.length - 1;
+        int slot = hash(key) & mask;
+        for (; slots[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slots[slot] - 1] == key) {
+                return slots[slot] - 1;
+            }
+        }
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        keys[size] = key;
+        slots[slot] = ++size;
+        if (2 * size > slots.length) {
+            rehash();
+        }
+        return size - 1;
+    }
+
+    public int getLeft(int id) {
+        return (int) (keys[id] >> 32);
+    }
+
+    public int getRight(int id) {
+        return (int) keys[id];
+    }
+
+    private static long pack(int left, int right) {
+        return ((long) left << 32) | (right & 0xFFFFFFFFL);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hash(keys[id]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+}
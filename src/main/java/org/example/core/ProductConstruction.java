@@ -0,0 +1,128 @@
+package org.example.core;
+
+import java.awt.Point;
+import java.util.*;
+
+// Language operations on two automata through the product DEA.
+// Only pairs reachable from the pair of initial states are built; pairs are interned in a
+// PairTable and the product is kept as an int table until the Automaton is created.
+// Pairs that can never accept for the operation (e.g. a dead left side in an intersection)
+// are not explored at all. NEAs are determinized lazily (see DfaView).
+public class ProductConstruction {
+
+    public enum Operation {
+        INTERSECTION, UNION, DIFFERENCE, SYMMETRIC_DIFFERENCE;
+
+        boolean accepts(boolean left, boolean right) {
+            return switch (this) {
+                case INTERSECTION -> left && right;
+                case UNION -> left || right;
+                case DIFFERENCE -> left && !right;
+                case SYMMETRIC_DIFFERENCE -> left != right;
+            };
+        }
+
+        // True if no word can be accepted from this pair any more
+        boolean isDead(boolean leftDead, boolean rightDead) {
+            return switch (this) {
+                case INTERSECTION -> leftDead || rightDead;
+                case DIFFERENCE -> leftDead;
+                case UNION, SYMMETRIC_DIFFERENCE -> leftDead && rightDead;
+            };
+        }
+    }
+
+    private boolean minimize;
+
+    public boolean isMinimize() {
+        return minimize;
+    }
+
+    // Minimize the product table before any State object is created
+    public void setMinimize(boolean minimize) {
+        this.minimize = minimize;
+    }
+
+    public Automaton intersection(Automaton a, Automaton b) {
+        return product(a, b, Operation.INTERSECTION);
+    }
+
+    public Automaton union(Automaton a, Automaton b) {
+        return product(a, b, Operation.UNION);
+    }
+
+    public Automaton difference(Automaton a, Automaton b) {
+        return product(a, b, Operation.DIFFERENCE);
+    }
+
+    public Automaton symmetricDifference(Automaton a, Automaton b) {
+        return product(a, b, Operation.SYMMETRIC_DIFFERENCE);
+    }
+
+    public Automaton product(Automaton a, Automaton b, Operation operation) {
+        List<String> symbols = DfaView.sharedSymbols(a, b);
+        DfaView left = new DfaView(a, symbols);
+        DfaView right = new DfaView(b, symbols);
+        int symbolCount = symbols.size();
+
+        PairTable pairs = new PairTable();
+        int[] table = new int[16 * Math.max(1, symbolCount)];
+        boolean[] accepting = new boolean[16];
+        int p0 = left.getInitialState();
+        int q0 = right.getInitialState();
+        if (operation.isDead(p0 == DfaView.DEAD, q0 == DfaView.DEAD)) {
+            int[] noTransitions = new int[symbolCount];
+            Arrays.fill(noTransitions, DfaView.DEAD);
+            return build(noTransitions, new boolean[1], 1, new SymbolTable(symbols));
+        }
+        pairs.intern(p0, q0);
+
+        // Pair ids are handed out in BFS order, so the table is filled row by row
+        for (int pair = 0; pair < pairs.size(); pair++) {
+            int p = pairs.getLeft(pair);
+            int q = pairs.getRight(pair);
+            if (pair == accepting.length) {
+                accepting = Arrays.copyOf(accepting, pair * 2);
+                table = Arrays.copyOf(table, pair * 2 * symbolCount);
+            }
+            accepting[pair] = operation.accepts(left.isAccepting(p), right.isAccepting(q));
+
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                int pNext = left.step(p, symbol);
+                int qNext = right.step(q, symbol);
+                table[pair * symbolCount + symbol] = operation.isDead(pNext == DfaView.DEAD, qNext == DfaView.DEAD)
+                        ? DfaView.DEAD
+                        : pairs.intern(pNext, qNext);
+            }
+        }
+
+        int stateCount = pairs.size();
+        if (minimize) {
+            DfaMinimizer.Minimized minimized = DfaMinimizer.minimize(
+                    Arrays.copyOf(table, stateCount * symbolCount), symbolCount,
+                    Arrays.copyOf(accepting, stateCount), 0);
+            boolean[] blockAccepting = new boolean[minimized.getStateCount()];
+            for (int block = 0; block < blockAccepting.length; block++) {
+                blockAccepting[block] = minimized.isAccepting(block);
+            }
+            return build(minimized.getTable(), blockAccepting, blockAccepting.length, new SymbolTable(symbols));
+        }
+        return build(table, accepting, stateCount, new SymbolTable(symbols));
+    }
+
+    // State 0 is the initial state
+    private Automaton build(int[] table, boolean[] accepting, int stateCount, SymbolTable symbols) {
+        Automaton result = new Automaton();
+        result.setNFA(false);
+        State[] states = new State[stateCount];
+        for (int i = 0; i < stateCount; i++) {
+            Point pos = AutomatonTables.gridPosition(i, stateCount);
+            states[i] = new State("q" + i, pos.x, pos.y);
+            states[i].setFinal(accepting[i]);
+            result.addState(states[i]);
+        }
+        result.setInitialState(states[0]);
+        AutomatonTables.addTransitions(result, states, table, symbols);
+        return result;
+    }
+}
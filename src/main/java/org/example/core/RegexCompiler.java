@@ -0,0 +1,312 @@
+package org.example.core;
+
+import java.awt.Point;
+import java.util.*;
+
+// Builds a NEA with ε-transitions from a regular expression (Thompson construction).
+// Syntax: ab (concatenation), a|b (union), a* a+ a? (repetition), (...) (grouping),
+// [abc] [a-z0-9] (character classes) and \x to read a special character literally.
+// An empty alternative such as "(a|)" stands for ε. ',', 'ε' and whitespace cannot be symbols
+// because they are part of the transition label syntax (labels are split at ',' and trimmed).
+// Parsing (shunting-yard to postfix) and construction both use explicit stacks, so time and
+// memory are linear in the pattern length and deeply nested patterns cannot overflow the stack.
+public class RegexCompiler {
+    private static final int LITERAL = 0;
+    private static final int EMPTY = 1;
+    private static final int CONCAT = 2;
+    private static final int UNION = 3;
+    private static final int STAR = 4;
+    private static final int PLUS = 5;
+    private static final int OPTIONAL = 6;
+    private static final int OPEN = 7;
+
+    public Automaton compile(String pattern) {
+        Automaton automaton = new Automaton();
+        compile(pattern, automaton);
+        return automaton;
+    }
+
+    // Replaces the contents of 'target' with the automaton for the pattern and marks it as a NEA
+    public void compile(String pattern, Automaton target) {
+        Postfix postfix = toPostfix(pattern);
+        Builder builder = new Builder();
+        int[] fragments = new int[2 * Math.max(1, postfix.size)];
+        int top = 0;
+
+        for (int i = 0; i < postfix.size; i++) {
+            int op = postfix.ops[i];
+            switch (op) {
+                case LITERAL, EMPTY -> {
+                    int start = builder.newState();
+                    int end = builder.newState();
+                    builder.addEdge(start, end, op == LITERAL ? postfix.labels.get(i) : Transition.EPSILON);
+                    fragments[top++] = start;
+                    fragments[top++] = end;
+                }
+                case CONCAT -> {
+                    int secondEnd = fragments[--top];
+                    int secondStart = fragments[--top];
+                    int firstEnd = fragments[top - 1];
+                    builder.addEdge(firstEnd, secondStart, Transition.EPSILON);
+                    fragments[top - 1] = secondEnd;
+                }
+                case UNION -> {
+                    int secondEnd = fragments[--top];
+                    int secondStart = fragments[--top];
+                    int firstEnd = fragments[--top];
+                    int firstStart = fragments[--top];
+                    int start = builder.newState();
+                    int end = builder.newState();
+                    builder.addEdge(start, firstStart, Transition.EPSILON);
+                    builder.addEdge(start, secondStart, Transition.EPSILON);
+                    builder.addEdge(firstEnd, end, Transition.EPSILON);
+                    builder.addEdge(secondEnd, end, Transition.EPSILON);
+                    fragments[top++] = start;
+                    fragments[top++] = end;
+                }
+                case STAR, PLUS, OPTIONAL -> {
+                    int innerEnd = fragments[--top];
+                    int innerStart = fragments[--top];
+                    int start = builder.newState();
+                    int end = builder.newState();
+                    builder.addEdge(start, innerStart, Transition.EPSILON);
+                    builder.addEdge(innerEnd, end, Transition.EPSILON);
+                    if (op != PLUS) {
+                        builder.addEdge(start, end, Transition.EPSILON);
+                    }
+                    if (op != OPTIONAL) {
+                        builder.addEdge(innerEnd, innerStart, Transition.EPSILON);
+                    }
+                    fragments[top++] = start;
+                    fragments[top++] = end;
+                }
+                default -> throw new IllegalStateException("Unexpected operator " + op);
+            }
+        }
+
+        builder.build(target, fragments[0], fragments[1]);
+    }
+
+    // Shunting-yard: explicit concatenation and empty operands are inserted while reading
+    private Postfix toPostfix(String pattern) {
+        Postfix output = new Postfix(pattern.length());
+        int[] operators = new int[pattern.length() + 1];
+        int[] openPositions = new int[pattern.length() + 1];
+        int top = 0;
+        boolean expectOperand = true;
+
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            switch (c) {
+                case '(' -> {
+                    if (!expectOperand) {
+                        top = pushOperator(CONCAT, operators, top, output);
+                    }
+                    openPositions[top] = i;
+                    operators[top++] = OPEN;
+                    expectOperand = true;
+                    i++;
+                }
+                case ')' -> {
+                    if (expectOperand) {
+                        output.add(EMPTY, null);
+                    }
+                    while (top > 0 && operators[top - 1] != OPEN) {
+                        output.add(operators[--top], null);
+                    }
+                    if (top == 0) {
+                        throw error(pattern, i, "Unmatched ')'");
+                    }
+                    top--;
+                    expectOperand = false;
+                    i++;
+                }
+                case '|' -> {
+                    if (expectOperand) {
+                        output.add(EMPTY, null);
+                    }
+                    top = pushOperator(UNION, operators, top, output);
+                    expectOperand = true;
+                    i++;
+                }
+                case '*', '+', '?' -> {
+                    if (expectOperand) {
+                        throw error(pattern, i, "Nothing to repeat before '" + c + "'");
+                    }
+                    output.add(c == '*' ? STAR : c == '+' ? PLUS : OPTIONAL, null);
+                    i++;
+                }
+                default -> {
+                    if (!expectOperand) {
+                        top = pushOperator(CONCAT, operators, top, output);
+                    }
+                    StringBuilder label = new StringBuilder();
+                    i = c == '[' ? readClass(pattern, i, label) : readLiteral(pattern, i, label);
+                    output.add(LITERAL, label.toString());
+                    expectOperand = false;
+                }
+            }
+        }
+
+        if (expectOperand) {
+            output.add(EMPTY, null);
+        }
+        while (top > 0) {
+            if (operators[top - 1] == OPEN) {
+                throw error(pattern, openPositions[top - 1], "Unmatched '('");
+            }
+            output.add(operators[--top], null);
+        }
+        return output;
+    }
+
+    // Concatenation binds stronger than union, both are left-associative
+    private int pushOperator(int op, int[] operators, int top, Postfix output) {
+        while (top > 0 && operators[top - 1] != OPEN && operators[top - 1] <= op) {
+            output.add(operators[--top], null);
+        }
+        operators[top++] = op;
+        return top;
+    }
+
+    private int readLiteral(String pattern, int i, StringBuilder label) {
+        char c = pattern.charAt(i);
+        if (c == ']') {
+            throw error(pattern, i, "Unmatched ']'");
+        }
+        if (c == '\\') {
+            if (i + 1 == pattern.length()) {
+                throw error(pattern, i, "Trailing '\\'");
+            }
+            c = pattern.charAt(++i);
+        }
+        label.append(checkSymbol(pattern, i, c));
+        return i + 1;
+    }
+
+    // Appends the symbols of [...] as a comma-separated label, returns the index after ']'
+    private int readClass(String pattern, int open, StringBuilder label) {
+        BitSet members = new BitSet();
+        int i = open + 1;
+        if (i < pattern.length() && pattern.charAt(i) == '^') {
+            throw error(pattern, i, "Negated classes are not supported, the alphabet is not known");
+        }
+
+        while (i < pattern.length() && pattern.charAt(i) != ']') {
+            char from = pattern.charAt(i);
+            if (from == '\\' && i + 1 < pattern.length()) {
+                from = pattern.charAt(++i);
+            }
+            checkSymbol(pattern, i, from);
+            i++;
+
+            if (i + 1 < pattern.length() && pattern.charAt(i) == '-' && pattern.charAt(i + 1) != ']') {
+                char to = pattern.charAt(i + 1);
+                if (to == '\\' && i + 2 < pattern.length()) {
+                    to = pattern.charAt(i + 2);
+                    i++;
+                }
+                if (to < from) {
+                    throw error(pattern, i, "Invalid range " + from + "-" + to);
+                }
+                // An int, so a range ending at Character.MAX_VALUE stops instead of wrapping around
+                for (int r = from; r <= to; r++) {
+                    checkSymbol(pattern, i, (char) r);
+                }
+                members.set(from, to + 1);
+                i += 2;
+            } else {
+                members.set(from);
+            }
+        }
+
+        if (i == pattern.length()) {
+            throw error(pattern, open, "Unmatched '['");
+        }
+        if (members.isEmpty()) {
+            throw error(pattern, open, "Empty character class");
+        }
+        for (int c = members.nextSetBit(0); c >= 0; c = members.nextSetBit(c + 1)) {
+            if (label.length() > 0) {
+                label.append(',');
+            }
+            label.append((char) c);
+        }
+        return i + 1;
+    }
+
+    private char checkSymbol(String pattern, int i, char c) {
+        if (c == ',' || Transition.EPSILON.indexOf(c) >= 0) {
+            throw error(pattern, i, "'" + c + "' cannot be used as a symbol");
+        }
+        if (Character.isWhitespace(c)) {
+            throw error(pattern, i, "Whitespace cannot be used as a symbol");
+        }
+        return c;
+    }
+
+    private IllegalArgumentException error(String pattern, int position, String message) {
+        return new IllegalArgumentException(message + " at position " + position + " in \"" + pattern + "\"");
+    }
+
+    private static final class Postfix {
+        int[] ops;
+        // Label of each LITERAL, null for operators
+        final List<String> labels;
+        int size;
+
+        Postfix(int capacity) {
+            this.ops = new int[Math.max(4, 2 * capacity + 1)];
+            this.labels = new ArrayList<>(ops.length);
+        }
+
+        void add(int op, String label) {
+            if (size == ops.length) {
+                ops = Arrays.copyOf(ops, size * 2);
+            }
+            ops[size++] = op;
+            labels.add(label);
+        }
+    }
+
+    // Collects states and edges as ints and creates the State/Transition objects at the end
+    private static final class Builder {
+        private int stateCount;
+        private int[] from = new int[16];
+        private int[] to = new int[16];
+        private final List<String> labels = new ArrayList<>();
+
+        int newState() {
+            return stateCount++;
+        }
+
+        void addEdge(int source, int target, String label) {
+            int edge = labels.size();
+            if (edge == from.length) {
+                from = Arrays.copyOf(from, edge * 2);
+                to = Arrays.copyOf(to, edge * 2);
+            }
+            from[edge] = source;
+            to[edge] = target;
+            labels.add(label);
+        }
+
+        void build(Automaton target, int initial, int accepting) {
+            target.clear();
+            target.setNFA(true);
+            State[] states = new State[stateCount];
+            for (int i = 0; i < stateCount; i++) {
+                Point pos = AutomatonTables.gridPosition(i, stateCount);
+                states[i] = new State("q" + i, pos.x, pos.y);
+                target.addState(states[i]);
+            }
+            target.setInitialState(states[initial]);
+            states[accepting].setFinal(true);
+
+            for (int edge = 0; edge < labels.size(); edge++) {
+                target.addTransition(new Transition(states[from[edge]], states[to[edge]], labels.get(edge)));
+            }
+        }
+    }
+}
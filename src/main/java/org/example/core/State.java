@@ -4,10 +4,13 @@ import java.awt.Point;
 import java.util.Objects;
 
 public class State {
+    public static final int RADIUS = 30;
+
     private String id;
     private boolean isInitial;
     private boolean isFinal;
     private Point position;
+    private Automaton owner;
 
     public State(String id, int x, int y) {
         this.id = id;
@@ -38,6 +41,9 @@ public class State {
 
     public void setFinal(boolean finalState) {
         isFinal = finalState;
+        if (owner != null) {
+            owner.invalidateCompiled();
+        }
     }
 
     public Point getPosition() {
@@ -45,14 +51,31 @@ public class State {
     }
 
     public void setPosition(int x, int y) {
+        int oldX = position.x;
+        int oldY = position.y;
         this.position.setLocation(x, y);
+        if (owner != null) {
+            owner.stateMoved(this, oldX, oldY);
+        }
+    }
+
+    Automaton getOwner() {
+        return owner;
+    }
+
+    void setOwner(Automaton owner) {
+        this.owner = owner;
     }
 
     public boolean contains(int x, int y) {
-        // Check if point is within state circle (radius = 30)
-        int dx = x - position.x;
-        int dy = y - position.y;
-        return Math.sqrt(dx * dx + dy * dy) <= 30;
+        // Check if point is within state circle, compared squared to avoid the square root
+        return distanceSquared(x, y) <= (long) RADIUS * RADIUS;
+    }
+
+    public long distanceSquared(int x, int y) {
+        long dx = x - position.x;
+        long dy = y - position.y;
+        return dx * dx + dy * dy;
     }
 
     @Override
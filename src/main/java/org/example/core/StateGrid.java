@@ -0,0 +1,108 @@
+package org.example.core;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.*;
+
+// Uniform grid over state positions, so hit tests and proximity queries only look at the
+// states in nearby cells instead of all states. Kept up to date by Automaton, which is told
+// about every move through the owner link of State.
+final class StateGrid {
+    static final int CELL_SIZE = 64;
+
+    private final Map<Long, List<State>> cells = new HashMap<>();
+
+    void add(State state) {
+        Point pos = state.getPosition();
+        cells.computeIfAbsent(key(cell(pos.x), cell(pos.y)), k -> new ArrayList<>(2)).add(state);
+    }
+
+    void remove(State state) {
+        Point pos = state.getPosition();
+        remove(state, pos.x, pos.y);
+    }
+
+    void move(State state, int oldX, int oldY) {
+        Point pos = state.getPosition();
+        if (cell(oldX) == cell(pos.x) && cell(oldY) == cell(pos.y)) {
+            return;
+        }
+        remove(state, oldX, oldY);
+        add(state);
+    }
+
+    private void remove(State state, int x, int y) {
+        long key = key(cell(x), cell(y));
+        List<State> states = cells.get(key);
+        if (states != null) {
+            // By identity: states are equal by id, and ids can be edited
+            for (int i = 0; i < states.size(); i++) {
+                if (states.get(i) == state) {
+                    states.remove(i);
+                    break;
+                }
+            }
+            if (states.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    void clear() {
+        cells.clear();
+    }
+
+    // States of all cells overlapping the rectangle (a superset of the states inside it)
+    void collect(int minX, int minY, int maxX, int maxY, List<State> result) {
+        for (int cx = cell(minX); cx <= cell(maxX); cx++) {
+            for (int cy = cell(minY); cy <= cell(maxY); cy++) {
+                List<State> states = cells.get(key(cx, cy));
+                if (states != null) {
+                    result.addAll(states);
+                }
+            }
+        }
+    }
+
+    void collect(Rectangle area, List<State> result) {
+        collect(area.x, area.y, area.x + area.width, area.y + area.height, result);
+    }
+
+    // States of all cells within 'distance' of the segment, column by column, so a long
+    // diagonal edge touches O(length / CELL_SIZE) cells rather than its whole bounding box
+    void collectNearSegment(int x1, int y1, int x2, int y2, int distance, List<State> result) {
+        int minX = Math.min(x1, x2);
+        int maxX = Math.max(x1, x2);
+        for (int cx = cell(minX - distance); cx <= cell(maxX + distance); cx++) {
+            // Part of the segment within 'distance' of this column (endpoints for columns beside it)
+            int fromX = Math.max(minX, Math.min(maxX, cx * CELL_SIZE - distance));
+            int toX = Math.max(minX, Math.min(maxX, cx * CELL_SIZE + CELL_SIZE - 1 + distance));
+            int fromY;
+            int toY;
+            if (x1 == x2) {
+                fromY = Math.min(y1, y2);
+                toY = Math.max(y1, y2);
+            } else {
+                double slope = (double) (y2 - y1) / (x2 - x1);
+                int ya = (int) Math.floor(y1 + slope * (fromX - x1));
+                int yb = (int) Math.floor(y1 + slope * (toX - x1));
+                fromY = Math.min(ya, yb);
+                toY = Math.max(ya, yb) + 1;
+            }
+            for (int cy = cell(fromY - distance); cy <= cell(toY + distance); cy++) {
+                List<State> states = cells.get(key(cx, cy));
+                if (states != null) {
+                    result.addAll(states);
+                }
+            }
+        }
+    }
+
+    private static int cell(int coordinate) {
+        return Math.floorDiv(coordinate, CELL_SIZE);
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+}
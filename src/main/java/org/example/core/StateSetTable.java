@@ -0,0 +1,153 @@
+package org.example.core;
+
+import java.util.*;
+
+// Interns state sets (long[] bitsets of a fixed word count) and numbers them densely.
+// All sets live in one flat long[] arena and are found through an open-addressing hash
+// table of ids, so interning an already known set allocates nothing.
+public final class StateSetTable {
+    public static final int NOT_FOUND = -1;
+
+    private final int words;
+    private long[] arena;
+    private int[] hashes;
+    private int[] slots; // id + 1, 0 = empty
+    private int size;
+
+    public StateSetTable(int words) {
+        this.words = words;
+        this.arena = new long[16 * words];
+        this.hashes = new int[16];
+        this.slots = new int[32];
+    }
+
+    public int getWordCount() {
+        return words;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int indexOf(long[] set) {
+        int hash = hash(set);
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && equalsAt(id, set)) {
+                return id;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    // Returns the id of the set, adding a copy of it if it is not known yet
+    public int intern(long[] set) {
+        int hash = hash(set);
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        for (; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && equalsAt(id, set)) {
+                return id;
+            }
+        }
+
+        int id = size++;
+        if (id == hashes.length) {
+            grow();
+        }
+        System.arraycopy(set, 0, arena, id * words, words);
+        hashes[id] = hash;
+        slots[slot] = id + 1;
+
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    public void copyTo(int id, long[] target) {
+        System.arraycopy(arena, id * words, target, 0, words);
+    }
+
+    public boolean contains(int id, int state) {
+        return (arena[id * words + (state >>> 6)] & (1L << state)) != 0L;
+    }
+
+    public boolean intersects(int id, long[] mask) {
+        int base = id * words;
+        for (int w = 0; w < words; w++) {
+            if ((arena[base + w] & mask[w]) != 0L) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // True if the stored set is contained in 'set'
+    public boolean isSubsetOf(int id, long[] set) {
+        int base = id * words;
+        for (int w = 0; w < words; w++) {
+            if ((arena[base + w] & ~set[w]) != 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // True if 'set' is contained in the stored set
+    public boolean isSupersetOf(int id, long[] set) {
+        int base = id * words;
+        for (int w = 0; w < words; w++) {
+            if ((set[w] & ~arena[base + w]) != 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(slots, 0);
+        size = 0;
+    }
+
+    private boolean equalsAt(int id, long[] set) {
+        int base = id * words;
+        for (int w = 0; w < words; w++) {
+            if (arena[base + w] != set[w]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int hash(long[] set) {
+        long h = 0x9E3779B97F4A7C15L;
+        for (int w = 0; w < words; w++) {
+            h = Long.rotateLeft(h ^ set[w], 27) * 0xC2B2AE3D27D4EB4FL;
+        }
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void grow() {
+        int capacity = hashes.length * 2;
+        if ((long) capacity * words > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Too many state sets: " + size);
+        }
+        hashes = Arrays.copyOf(hashes, capacity);
+        arena = Arrays.copyOf(arena, capacity * words);
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.core;
+
+import java.util.*;
+
+// Immutable mapping between input symbols and dense ids 0..size()-1.
+// Single-character symbols can be looked up by char without allocating a String.
+public final class SymbolTable {
+    public static final int NO_SYMBOL = -1;
+
+    private static final int ASCII = 128;
+
+    private final String[] symbols;
+    private final Map<String, Integer> ids;
+    private final int[] asciiIds;
+    // Sorted non-ASCII single-character symbols and their ids
+    private final char[] otherChars;
+    private final int[] otherIds;
+
+    public SymbolTable(List<String> symbols) {
+        this.symbols = symbols.toArray(new String[0]);
+        this.ids = new HashMap<>();
+        this.asciiIds = new int[ASCII];
+        Arrays.fill(asciiIds, NO_SYMBOL);
+
+        TreeMap<Character, Integer> others = new TreeMap<>();
+        for (int i = 0; i < this.symbols.length; i++) {
+            String symbol = this.symbols[i];
+            if (ids.putIfAbsent(symbol, i) != null) {
+                throw new IllegalArgumentException("Duplicate symbol: " + symbol);
+            }
+            if (symbol.length() == 1) {
+                char c = symbol.charAt(0);
+                if (c < ASCII) {
+                    asciiIds[c] = i;
+                } else {
+                    others.put(c, i);
+                }
+            }
+        }
+
+        this.otherChars = new char[others.size()];
+        this.otherIds = new int[others.size()];
+        int k = 0;
+        for (Map.Entry<Character, Integer> e : others.entrySet()) {
+            otherChars[k] = e.getKey();
+            otherIds[k] = e.getValue();
+            k++;
+        }
+    }
+
+    public int size() {
+        return symbols.length;
+    }
+
+    public String getSymbol(int id) {
+        return symbols[id];
+    }
+
+    public int idOf(String symbol) {
+        Integer id = ids.get(symbol);
+        return id == null ? NO_SYMBOL : id;
+    }
+
+    public int idOf(char c) {
+        if (c < ASCII) {
+            return asciiIds[c];
+        }
+        int k = Arrays.binarySearch(otherChars, c);
+        return k < 0 ? NO_SYMBOL : otherIds[k];
+    }
+
+    public List<String> getSymbols() {
+        return Collections.unmodifiableList(Arrays.asList(symbols));
+    }
+}
@@ -3,14 +3,23 @@ package org.example.core;
 import java.util.*;
 
 public class Transition {
+    // Label of a transition that is taken without reading input; it is never part of the alphabet
+    public static final String EPSILON = "ε";
+
     private State fromState;
     private State toState;
     private String symbol;
+    // The label split into its symbols once, instead of on every lookup
+    private List<String> symbols;
+    private boolean epsilon;
+    // Ids of the symbols in the alphabet of the automaton this transition was added to
+    private int[] symbolIds;
+    private long[] symbolMask;
 
     public Transition(State fromState, State toState, String symbol) {
         this.fromState = fromState;
         this.toState = toState;
-        this.symbol = symbol;
+        relabel(symbol);
     }
 
     public State getFromState() {
@@ -25,36 +34,85 @@ public class Transition {
         return symbol;
     }
 
+    // The label is part of equals/hashCode and of the owner's index, so a transition that
+    // belongs to an automaton is relabelled through Automaton.setTransitionSymbol
     public void setSymbol(String symbol) {
+        Automaton owner = fromState.getOwner();
+        if (owner != null) {
+            owner.setTransitionSymbol(this, symbol);
+        } else {
+            relabel(symbol);
+        }
+    }
+
+    final void relabel(String symbol) {
         this.symbol = symbol;
+        this.symbols = parseSymbols(symbol);
+        this.epsilon = symbols.contains(EPSILON);
+        this.symbolIds = new int[0];
+        this.symbolMask = new long[0];
     }
 
-    public boolean acceptsSymbol(String inputSymbol) {
+    // Each symbol once, in label order; blank parts ("a,,b") are not symbols
+    private static List<String> parseSymbols(String symbol) {
+        Set<String> result = new LinkedHashSet<>();
         if (symbol.contains(",")) {
-            // Split by comma and check if any matches
             String[] symbols = symbol.split(",");
             for (String s : symbols) {
-                if (s.trim().equals(inputSymbol)) {
-                    return true;
+                String trimmed = s.trim();
+                if (!trimmed.isEmpty()) {
+                    result.add(trimmed);
                 }
             }
-            return false;
-        } else {
-            return symbol.equals(inputSymbol);
+        } else if (!symbol.isEmpty()) {
+            result.add(symbol);
         }
+        return List.copyOf(result);
     }
 
-    public List<String> getIndividualSymbols() {
-        List<String> result = new ArrayList<>();
-        if (symbol.contains(",")) {
-            String[] symbols = symbol.split(",");
-            for (String s : symbols) {
-                result.add(s.trim());
+    // Interns the symbols (except ε) into the alphabet and remembers their ids
+    void bindSymbols(Alphabet alphabet) {
+        int[] ids = new int[symbols.size()];
+        int max = 0;
+        int count = 0;
+        for (String s : symbols) {
+            if (!s.equals(EPSILON)) {
+                ids[count] = alphabet.intern(s);
+                max = Math.max(max, ids[count]);
+                count++;
             }
-        } else {
-            result.add(symbol);
         }
-        return result;
+        ids = Arrays.copyOf(ids, count);
+
+        long[] mask = new long[(max >>> 6) + 1];
+        for (int id : ids) {
+            mask[id >>> 6] |= 1L << id;
+        }
+        this.symbolIds = ids;
+        this.symbolMask = mask;
+    }
+
+    public boolean acceptsSymbol(String inputSymbol) {
+        return symbols.contains(inputSymbol);
+    }
+
+    public boolean acceptsSymbol(int symbolId) {
+        return symbolId >= 0 && (symbolId >>> 6) < symbolMask.length
+                && (symbolMask[symbolId >>> 6] & (1L << symbolId)) != 0;
+    }
+
+    // True if the label contains ε, possibly next to other symbols ("a,ε")
+    public boolean isEpsilon() {
+        return epsilon;
+    }
+
+    public List<String> getIndividualSymbols() {
+        return symbols;
+    }
+
+    // Empty until the transition has been added to an automaton, never contains ε
+    public int[] getSymbolIds() {
+        return symbolIds;
     }
 
     @Override
@@ -76,4 +134,4 @@ public class Transition {
     public String toString() {
         return fromState.getId() + " --" + symbol + "--> " + toState.getId();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,148 @@
+package org.example;
+
+import org.example.core.Automaton;
+import org.example.core.AutomatonGenerator;
+import org.example.core.State;
+import org.example.core.Transition;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AutomatonValidatorTest {
+
+    private static State addState(Automaton automaton, String id) {
+        State state = new State(id, 0, 0);
+        automaton.addState(state);
+        return state;
+    }
+
+    @Test
+    void completeDfaIsValid() {
+        AutomatonValidator.Report report = new AutomatonValidator().validate(AutomatonGenerator.countModulo(3));
+        assertTrue(report.isValidDfa());
+        assertTrue(report.getUnreachableStates().isEmpty());
+        assertTrue(report.getDeadStates().isEmpty());
+    }
+
+    @Test
+    void reportsEveryKindOfProblem() {
+        Automaton automaton = new Automaton();
+        State q0 = addState(automaton, "q0");
+        State q1 = addState(automaton, "q1");
+        State q2 = addState(automaton, "q2");
+        State trap = addState(automaton, "trap");
+        State island = addState(automaton, "island");
+        automaton.setInitialState(q0);
+        q2.setFinal(true);
+        island.setFinal(true);
+
+        automaton.addTransition(new Transition(q0, q1, "a"));
+        automaton.addTransition(new Transition(q0, q2, "a,b"));
+        automaton.addTransition(new Transition(q1, q2, Transition.EPSILON));
+        automaton.addTransition(new Transition(q2, trap, "b"));
+        automaton.addTransition(new Transition(trap, trap, "a,b"));
+
+        AutomatonValidator.Report report = new AutomatonValidator().validate(automaton);
+
+        assertFalse(report.isMissingInitialState());
+        assertEquals(1, report.getDeterminismViolations().size());
+        AutomatonValidator.DeterminismViolation violation = report.getDeterminismViolations().get(0);
+        assertEquals(q0, violation.getState());
+        assertEquals("a", violation.getSymbol());
+        assertEquals(Set.of(q1, q2), new HashSet<>(violation.getTargets()));
+
+        assertEquals(1, report.getEpsilonTransitions().size());
+        // q1 has no a/b at all, q2 has no a, the island has nothing
+        Set<String> missing = new HashSet<>();
+        for (AutomatonValidator.MissingTransition m : report.getMissingTransitions()) {
+            missing.add(m.getState().getId() + m.getSymbol());
+        }
+        assertEquals(Set.of("q1a", "q1b", "q2a", "islanda", "islandb"), missing);
+
+        assertEquals(List.of(island), report.getUnreachableStates());
+        assertEquals(List.of(trap), report.getDeadStates());
+        assertFalse(report.isValidDfa());
+    }
+
+    @Test
+    void symbolsNoLongerOnAnyTransitionAreNotMissing() {
+        Automaton automaton = AutomatonGenerator.countModulo(2);
+        State q0 = automaton.getInitialState();
+        Transition c = new Transition(q0, q0, "c");
+        automaton.addTransition(c);
+        assertEquals(1, new AutomatonValidator().validate(automaton).getMissingTransitions().size());
+
+        automaton.removeTransition(c);
+        assertTrue(new AutomatonValidator().validate(automaton).isValidDfa());
+
+        // Relabelling every b-loop to 'x' leaves 'b' unused
+        for (Transition t : new ArrayList<>(automaton.getTransitions())) {
+            if (t.getSymbol().equals("b")) {
+                automaton.setTransitionSymbol(t, "x");
+            }
+        }
+        assertTrue(automaton.getAlphabet().contains("b"));
+        assertTrue(new AutomatonValidator().validate(automaton).isValidDfa());
+
+        State other = automaton.getStates().stream().filter(s -> s != q0).findFirst().orElseThrow();
+        automaton.removeState(other);
+        Set<String> missing = new HashSet<>();
+        for (AutomatonValidator.MissingTransition m : new AutomatonValidator().validate(automaton).getMissingTransitions()) {
+            missing.add(m.getSymbol());
+        }
+        // The a-transitions went with the state, only the x-loop is left
+        assertEquals(Set.of(), missing);
+    }
+
+    @Test
+    void missingInitialStateMakesEverythingUnreachable() {
+        Automaton automaton = AutomatonGenerator.countModulo(2);
+        automaton.setInitialState(null);
+        AutomatonValidator.Report report = new AutomatonValidator().validate(automaton);
+        assertTrue(report.isMissingInitialState());
+        assertEquals(2, report.getUnreachableStates().size());
+        assertFalse(report.isValidDfa());
+    }
+
+    // Reachability and co-reachability against a naive fixpoint over all transitions
+    @Test
+    void agreesWithNaiveSearchOnRandomAutomata() {
+        AutomatonGenerator generator = new AutomatonGenerator(31);
+        for (int i = 0; i < 100; i++) {
+            Automaton automaton = generator.randomNfa(12, 2, 1, 0.15);
+            AutomatonValidator.Report report = new AutomatonValidator().validate(automaton);
+
+            Set<State> reachable = closure(automaton, Set.of(automaton.getInitialState()), true);
+            Set<State> finals = new HashSet<>();
+            for (State state : automaton.getStates()) {
+                if (state.isFinal()) {
+                    finals.add(state);
+                }
+            }
+            Set<State> coaccessible = closure(automaton, finals, false);
+
+            for (State state : automaton.getStates()) {
+                assertEquals(!reachable.contains(state), report.getUnreachableStates().contains(state));
+                assertEquals(!coaccessible.contains(state), report.getDeadStates().contains(state));
+            }
+        }
+    }
+
+    private static Set<State> closure(Automaton automaton, Set<State> start, boolean forward) {
+        Set<State> result = new HashSet<>(start);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Transition t : automaton.getTransitions()) {
+                State from = forward ? t.getFromState() : t.getToState();
+                State to = forward ? t.getToState() : t.getFromState();
+                if (result.contains(from) && result.add(to)) {
+                    changed = true;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,84 @@
+package org.example;
+
+import org.example.core.Automaton;
+import org.example.core.AutomatonGenerator;
+import org.example.core.EquivalenceChecker;
+import org.example.core.State;
+import org.example.core.Transition;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NFAToDFAConverterTest {
+
+    private static State addState(Automaton automaton, String id) {
+        State state = new State(id, 0, 0);
+        automaton.addState(state);
+        return state;
+    }
+
+    @Test
+    void epsilonTransitionsAreFollowed() {
+        // (ab)* with the loop closed by ε-transitions, plus "b" via an ε-path
+        Automaton nfa = new Automaton();
+        nfa.setNFA(true);
+        State q0 = addState(nfa, "q0");
+        State q1 = addState(nfa, "q1");
+        State q2 = addState(nfa, "q2");
+        State q3 = addState(nfa, "q3");
+        nfa.setInitialState(q0);
+        q0.setFinal(true);
+        q3.setFinal(true);
+        nfa.addTransition(new Transition(q0, q1, "a"));
+        nfa.addTransition(new Transition(q1, q2, "b"));
+        nfa.addTransition(new Transition(q2, q0, Transition.EPSILON));
+        nfa.addTransition(new Transition(q0, q3, Transition.EPSILON));
+        nfa.addTransition(new Transition(q3, q3, "b"));
+
+        NFAToDFAConverter.Result result = new NFAToDFAConverter().convert(nfa);
+        Automaton dfa = result.getDfa();
+
+        assertTrue(result.isComplete());
+        assertFalse(dfa.isNFA());
+        assertFalse(dfa.hasEpsilonTransitions());
+        assertTrue(dfa.simulate(""));
+        assertTrue(dfa.simulate("abab"));
+        assertTrue(dfa.simulate("abbb"));
+        assertFalse(dfa.simulate("aba"));
+        assertTrue(new EquivalenceChecker().check(nfa, dfa).isEquivalent());
+    }
+
+    @Test
+    void nthSymbolFromEndNeedsTwoToTheNStates() {
+        for (int n = 1; n <= 8; n++) {
+            Automaton nfa = AutomatonGenerator.nthSymbolFromEnd(n);
+            NFAToDFAConverter.Result result = new NFAToDFAConverter().convert(nfa);
+            assertTrue(result.isComplete());
+            assertEquals(1 << n, result.getStateCount(), "n = " + n);
+            assertTrue(new EquivalenceChecker().check(nfa, result.getDfa()).isEquivalent(), "n = " + n);
+        }
+    }
+
+    @Test
+    void stopsAtTheStateCap() {
+        NFAToDFAConverter converter = new NFAToDFAConverter();
+        converter.setMaxStates(100);
+        NFAToDFAConverter.Result result = converter.convert(AutomatonGenerator.nthSymbolFromEnd(10));
+        assertFalse(result.isComplete());
+        assertEquals(100, result.getStateCount());
+
+        converter.setMaxStates(1 << 10);
+        assertTrue(converter.convert(AutomatonGenerator.nthSymbolFromEnd(10)).isComplete());
+
+        assertThrows(IllegalArgumentException.class, () -> converter.setMaxStates(0));
+    }
+
+    @Test
+    void missingInitialStateGivesAnEmptyDfa() {
+        Automaton nfa = AutomatonGenerator.nthSymbolFromEnd(2);
+        nfa.setInitialState(null);
+        NFAToDFAConverter.Result result = new NFAToDFAConverter().convert(nfa);
+        assertTrue(result.isComplete());
+        assertEquals(0, result.getStateCount());
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AcceptanceSessionTest {
+    @TempDir
+    Path dir;
+
+    // Even number of a's, over {a, b}
+    private static Automaton evenAs(boolean nfa, Automaton.NfaSimulation simulation) {
+        Automaton automaton = AutomatonGenerator.countModulo(2);
+        automaton.setNFA(nfa);
+        automaton.setNfaSimulation(simulation);
+        return automaton;
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(dir.resolve(name), content, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void emptyFileIsTheEmptyWord() throws IOException {
+        Path empty = write("empty.txt", "");
+        for (Automaton.NfaSimulation simulation : Automaton.NfaSimulation.values()) {
+            for (boolean nfa : new boolean[] {false, true}) {
+                assertTrue(evenAs(nfa, simulation).simulate(empty, StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    @Test
+    void inputThatDiesEarlyStopsReading() throws IOException {
+        // 'c' is not in the alphabet, everything after it is irrelevant
+        Path file = write("dead.txt", "aac" + "ab".repeat(10_000));
+        for (Automaton.NfaSimulation simulation : Automaton.NfaSimulation.values()) {
+            for (boolean nfa : new boolean[] {false, true}) {
+                Automaton automaton = evenAs(nfa, simulation);
+                AcceptanceSession session = automaton.newSession();
+                session.feed(file, StandardCharsets.UTF_8);
+                assertTrue(session.isDead());
+                assertFalse(session.isAccepting());
+                assertTrue(session.getPosition() < 10_000);
+            }
+        }
+    }
+
+    @Test
+    void automatonWithoutInitialStateRejectsFiles() throws IOException {
+        Automaton automaton = new Automaton();
+        automaton.addState(new State("q0", 0, 0));
+        Path file = write("word.txt", "ab");
+        assertFalse(automaton.simulate(file, StandardCharsets.UTF_8));
+        assertFalse(automaton.simulate(write("empty.txt", ""), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void fileAndReaderAgreeWithSimulate() throws IOException {
+        Automaton automaton = AutomatonGenerator.containing("abba", 2);
+        AutomatonGenerator generator = new AutomatonGenerator(3);
+        for (int i = 0; i < 20; i++) {
+            String word = generator.randomWord(AutomatonGenerator.symbols(2), i * 37);
+            Path file = write("word" + i + ".txt", word);
+            boolean expected = automaton.simulate(word);
+            assertEquals(expected, automaton.simulate(file, StandardCharsets.UTF_8));
+            assertEquals(expected, automaton.simulate(new StringReader(word)));
+        }
+    }
+
+    @Test
+    void resetStartsOver() {
+        AcceptanceSession session = evenAs(false, Automaton.NfaSimulation.LAZY_DFA).newSession();
+        session.feed("abc");
+        assertTrue(session.isDead());
+        session.reset();
+        assertEquals(0, session.getPosition());
+        session.feed("aa");
+        assertTrue(session.isAccepting());
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AutomatonTest {
+
+    @Test
+    void relabelledTransitionIsReindexed() {
+        Automaton automaton = new Automaton();
+        State q0 = new State("q0", 0, 0);
+        State q1 = new State("q1", 100, 0);
+        automaton.addState(q0);
+        automaton.addState(q1);
+        automaton.setInitialState(q0);
+        q1.setFinal(true);
+        Transition t = new Transition(q0, q1, "a");
+        automaton.addTransition(t);
+        assertTrue(automaton.simulate("a"));
+
+        automaton.setTransitionSymbol(t, "b");
+
+        assertEquals("b", t.getSymbol());
+        assertTrue(automaton.getTransitions().contains(t));
+        assertNull(automaton.getTransition(q0, "a"));
+        assertSame(t, automaton.getTransition(q0, "b"));
+        assertFalse(automaton.simulate("a"));
+        assertTrue(automaton.simulate("b"));
+
+        automaton.removeTransition(t);
+        assertTrue(automaton.getTransitions().isEmpty());
+        assertTrue(automaton.getTransitionsFrom(q0).isEmpty());
+    }
+
+    @Test
+    void setSymbolOnAnOwnedTransitionReindexesIt() {
+        Automaton automaton = new Automaton();
+        State q0 = new State("q0", 0, 0);
+        State q1 = new State("q1", 100, 0);
+        automaton.addState(q0);
+        automaton.addState(q1);
+        Transition t = new Transition(q0, q1, "a");
+        automaton.addTransition(t);
+
+        t.setSymbol("b");
+
+        assertEquals("b", t.getSymbol());
+        assertNull(automaton.getTransition(q0, "a"));
+        assertSame(t, automaton.getTransition(q0, "b"));
+    }
+
+    @Test
+    void labelsListEachSymbolOnce() {
+        Automaton automaton = new Automaton();
+        State q0 = new State("q0", 0, 0);
+        State q1 = new State("q1", 100, 0);
+        automaton.addState(q0);
+        automaton.addState(q1);
+        Transition t = new Transition(q0, q1, "a, a,,b, ");
+        automaton.addTransition(t);
+
+        assertEquals(List.of("a", "b"), t.getIndividualSymbols());
+        assertEquals(List.of("a", "b"), automaton.getAlphabet().getSymbols());
+        assertEquals(List.of(t), automaton.getAllTransitions(q0, "a"));
+        assertEquals(List.of(t), automaton.getAllTransitions(q0, "b"));
+        assertTrue(automaton.getAllTransitions(q0, "").isEmpty());
+    }
+
+    @Test
+    void versionCountsEveryChangeToTheLanguage() {
+        Automaton automaton = new Automaton();
+        State q0 = new State("q0", 0, 0);
+        State q1 = new State("q1", 100, 0);
+        automaton.addState(q0);
+        automaton.addState(q1);
+
+        int version = automaton.getVersion();
+        q1.setFinal(true);
+        assertNotEquals(version, automaton.getVersion());
+
+        version = automaton.getVersion();
+        automaton.setInitialState(q0);
+        assertNotEquals(version, automaton.getVersion());
+
+        version = automaton.getVersion();
+        int modCount = automaton.getModCount();
+        q1.setPosition(200, 50);
+        assertEquals(version, automaton.getVersion());
+        assertEquals(modCount, automaton.getModCount());
+    }
+}
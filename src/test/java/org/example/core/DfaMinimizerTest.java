@@ -0,0 +1,118 @@
+package org.example.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DfaMinimizerTest {
+
+    private static State addState(Automaton automaton, String id) {
+        State state = new State(id, 0, 0);
+        automaton.addState(state);
+        return state;
+    }
+
+    // Myhill-Nerode by brute force: residual languages of all prefixes, told apart by all
+    // suffixes, without the empty residual of the dead state. The initial state always stays.
+    private static int residualCount(Automaton dfa, String symbols, int maxLength) {
+        List<String> words = Words.upTo(symbols, maxLength);
+        Set<List<Boolean>> residuals = new HashSet<>();
+        for (String prefix : words) {
+            List<Boolean> residual = new ArrayList<>();
+            boolean empty = true;
+            for (String suffix : words) {
+                boolean accepted = dfa.simulate(prefix + suffix);
+                residual.add(accepted);
+                empty &= !accepted;
+            }
+            if (!empty) {
+                residuals.add(residual);
+            }
+        }
+        return Math.max(1, residuals.size());
+    }
+
+    @Test
+    void knownFamiliesReachTheirMinimalSize() {
+        DfaMinimizer minimizer = new DfaMinimizer();
+        for (int k = 1; k <= 8; k++) {
+            assertEquals(k, minimizer.minimize(AutomatonGenerator.countModulo(k)).getStateCount(), "mod " + k);
+        }
+        // Odd divisors need one state per remainder, each factor 2 adds one more
+        int[][] divisors = {{3, 3}, {5, 5}, {7, 7}, {2, 2}, {4, 3}, {6, 4}, {12, 5}};
+        for (int[] divisor : divisors) {
+            Automaton minimal = minimizer.minimize(AutomatonGenerator.binaryDivisibleBy(divisor[0]));
+            assertEquals(divisor[1], minimal.getStateCount(), "divisible by " + divisor[0]);
+        }
+    }
+
+    @Test
+    void randomDfasKeepTheirLanguageAndBecomeMinimal() {
+        AutomatonGenerator generator = new AutomatonGenerator(5);
+        DfaMinimizer minimizer = new DfaMinimizer();
+        EquivalenceChecker checker = new EquivalenceChecker();
+        int shrunk = 0;
+        for (int i = 0; i < 100; i++) {
+            Automaton dfa = generator.randomDfa(6, 2, 0.7, 0.4);
+            Automaton minimal = minimizer.minimize(dfa);
+
+            assertFalse(minimal.isNFA());
+            assertTrue(checker.check(dfa, minimal).isEquivalent(), "dfa " + i);
+            assertEquals(residualCount(dfa, "ab", 6), minimal.getStateCount(), "dfa " + i);
+            assertEquals(minimal.getStateCount(), minimizer.minimize(minimal).getStateCount(), "dfa " + i);
+            if (minimal.getStateCount() < dfa.getStateCount()) {
+                shrunk++;
+            }
+        }
+        assertTrue(shrunk > 0, "no random DFA could be minimized");
+    }
+
+    @Test
+    void partialDfaLosesItsDeadStates() {
+        // Accepts exactly "ab"; the trap and the unreachable state are not part of the result
+        Automaton dfa = new Automaton();
+        State q0 = addState(dfa, "q0");
+        State q1 = addState(dfa, "q1");
+        State q2 = addState(dfa, "q2");
+        State trap = addState(dfa, "trap");
+        State unreachable = addState(dfa, "unreachable");
+        dfa.setInitialState(q0);
+        q2.setFinal(true);
+        unreachable.setFinal(true);
+        dfa.addTransition(new Transition(q0, q1, "a"));
+        dfa.addTransition(new Transition(q1, q2, "b"));
+        dfa.addTransition(new Transition(q0, trap, "b"));
+        dfa.addTransition(new Transition(trap, trap, "a,b"));
+        dfa.addTransition(new Transition(unreachable, q0, "a"));
+
+        Automaton minimal = new DfaMinimizer().minimize(dfa);
+
+        assertEquals(3, minimal.getStateCount());
+        assertEquals(2, minimal.getTransitions().size());
+        assertNull(minimal.getTransition(minimal.getInitialState(), "b"));
+        assertTrue(minimal.simulate("ab"));
+        assertFalse(minimal.simulate("a"));
+        assertFalse(minimal.simulate("abb"));
+    }
+
+    @Test
+    void emptyLanguageKeepsOnlyTheInitialState() {
+        Automaton dfa = AutomatonGenerator.countModulo(3);
+        for (State state : dfa.getStates()) {
+            state.setFinal(false);
+        }
+        Automaton minimal = new DfaMinimizer().minimize(dfa);
+        assertEquals(1, minimal.getStateCount());
+        assertNotNull(minimal.getInitialState());
+        assertTrue(minimal.getTransitions().isEmpty());
+        assertTrue(minimal.isLanguageEmpty());
+    }
+
+    @Test
+    void rejectsNfas() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new DfaMinimizer().minimize(AutomatonGenerator.nthSymbolFromEnd(2)));
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EquivalenceCheckerTest {
+    private static final List<String> WORDS = Words.upTo("ab", 8);
+
+    private static String firstDifference(Automaton a, Automaton b) {
+        for (String word : WORDS) {
+            if (a.simulate(word) != b.simulate(word)) {
+                return word;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    void agreesWithBruteForceOnRandomAutomata() {
+        AutomatonGenerator generator = new AutomatonGenerator(17);
+        EquivalenceChecker checker = new EquivalenceChecker();
+        int equivalent = 0;
+        for (int i = 0; i < 300; i++) {
+            Automaton a = i % 2 == 0 ? generator.randomDfa(3, 2, 0.8, 0.4) : generator.randomNfa(3, 2, 2, 0.4);
+            Automaton b = generator.randomDfa(3, 2, 0.8, 0.4);
+            EquivalenceChecker.Result result = checker.check(a, b);
+            String difference = firstDifference(a, b);
+
+            if (difference != null) {
+                // Breadth-first, so as short as the first difference in length order
+                assertFalse(result.isEquivalent(), "pair " + i);
+                assertEquals(difference.length(), result.getCounterexample().length(), "pair " + i);
+            }
+            if (result.isEquivalent()) {
+                assertNull(result.getCounterexample());
+                equivalent++;
+            } else {
+                assertNotEquals(a.simulate(result.getCounterexample()), b.simulate(result.getCounterexample()),
+                        "pair " + i);
+            }
+        }
+        assertTrue(equivalent > 0, "no equivalent pairs generated");
+    }
+
+    @Test
+    void nfasWithTheSameLanguageAreEquivalent() {
+        // Same language: 3rd symbol from the end is 'a', once as NEA and once via regex
+        Automaton nfa = AutomatonGenerator.nthSymbolFromEnd(3);
+        Automaton regex = new RegexCompiler().compile("(a|b)*a(a|b)(a|b)");
+        EquivalenceChecker.Result result = new EquivalenceChecker().check(nfa, regex);
+        assertTrue(result.isEquivalent());
+
+        Automaton other = new RegexCompiler().compile("(a|b)*a(a|b)");
+        EquivalenceChecker.Result different = new EquivalenceChecker().check(nfa, other);
+        assertFalse(different.isEquivalent());
+        assertEquals(2, different.getCounterexample().length());
+    }
+
+    @Test
+    void emptyWordCanBeTheCounterexample() {
+        Automaton all = new RegexCompiler().compile("(a|b)*");
+        Automaton nonEmpty = new RegexCompiler().compile("(a|b)+");
+        EquivalenceChecker.Result result = new EquivalenceChecker().check(all, nonEmpty);
+        assertFalse(result.isEquivalent());
+        assertEquals("", result.getCounterexample());
+    }
+
+    @Test
+    void differentAlphabetsAreCompared() {
+        Automaton a = new RegexCompiler().compile("a*");
+        Automaton b = new RegexCompiler().compile("a*|b");
+        EquivalenceChecker.Result result = new EquivalenceChecker().check(a, b);
+        assertFalse(result.isEquivalent());
+        assertEquals("b", result.getCounterexample());
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InclusionCheckerTest {
+    private static final List<String> WORDS = Words.upTo("ab", 8);
+
+    // Some word accepted by 'a' but not by 'b', up to the length of WORDS
+    private static String witness(Automaton a, Automaton b) {
+        for (String word : WORDS) {
+            if (a.simulate(word) && !b.simulate(word)) {
+                return word;
+            }
+        }
+        return null;
+    }
+
+    private static void assertConsistent(Automaton a, Automaton b, String context) {
+        InclusionChecker inclusion = new InclusionChecker();
+        InclusionChecker.Result forward = inclusion.check(a, b);
+        InclusionChecker.Result backward = inclusion.check(b, a);
+
+        if (witness(a, b) != null) {
+            assertFalse(forward.isIncluded(), context);
+        }
+        if (!forward.isIncluded()) {
+            String word = forward.getCounterexample();
+            assertTrue(a.simulate(word) && !b.simulate(word), context + ", counterexample \"" + word + "\"");
+        } else {
+            assertNull(forward.getCounterexample());
+        }
+        assertEquals(new EquivalenceChecker().check(a, b).isEquivalent(),
+                forward.isIncluded() && backward.isIncluded(), context);
+    }
+
+    @Test
+    void agreesWithBruteForceAndEquivalence() {
+        AutomatonGenerator generator = new AutomatonGenerator(29);
+        int included = 0;
+        for (int i = 0; i < 300; i++) {
+            Automaton a = generator.randomNfa(3, 2, 2, 0.4);
+            Automaton b = i % 3 == 0 ? generator.randomDfa(3, 2, 0.8, 0.5) : generator.randomNfa(3, 2, 2, 0.5);
+            assertConsistent(a, b, "pair " + i);
+            if (new InclusionChecker().check(a, b).isIncluded()) {
+                included++;
+            }
+        }
+        assertTrue(included > 0, "no included pairs generated");
+    }
+
+    @Test
+    void dfaModeAutomataUseTheirDfaSemantics() {
+        // Random NEAs switched to DEA mode: the first transition per symbol wins
+        AutomatonGenerator generator = new AutomatonGenerator(37);
+        for (int i = 0; i < 300; i++) {
+            Automaton a = generator.randomNfa(3, 2, 2, 0.4);
+            Automaton b = generator.randomNfa(3, 2, 2, 0.5);
+            a.setNFA(i % 2 == 0);
+            b.setNFA(false);
+            assertConsistent(a, b, "pair " + i);
+        }
+    }
+
+    @Test
+    void nondeterministicDfaIsComparedByWhatItAccepts() {
+        // In DEA mode q0 -a-> q1 (added first) wins over q0 -a-> q2, so "a" is rejected
+        Automaton dfaMode = new Automaton();
+        State q0 = new State("q0", 0, 0);
+        State q1 = new State("q1", 100, 0);
+        State q2 = new State("q2", 200, 0);
+        dfaMode.addState(q0);
+        dfaMode.addState(q1);
+        dfaMode.addState(q2);
+        dfaMode.setInitialState(q0);
+        q2.setFinal(true);
+        dfaMode.addTransition(new Transition(q0, q1, "a"));
+        dfaMode.addTransition(new Transition(q0, q2, "a"));
+        assertFalse(dfaMode.simulate("a"));
+
+        Automaton onlyA = new RegexCompiler().compile("a");
+        InclusionChecker checker = new InclusionChecker();
+        assertTrue(checker.check(dfaMode, onlyA).isIncluded());
+        InclusionChecker.Result result = checker.check(onlyA, dfaMode);
+        assertFalse(result.isIncluded());
+        assertEquals("a", result.getCounterexample());
+
+        dfaMode.setNFA(true);
+        assertTrue(checker.check(onlyA, dfaMode).isIncluded());
+    }
+
+    @Test
+    void knownInclusions() {
+        Automaton all = new RegexCompiler().compile("(a|b)*");
+        Automaton endsInA = new RegexCompiler().compile("(a|b)*a");
+        Automaton thirdFromEnd = AutomatonGenerator.nthSymbolFromEnd(3);
+        InclusionChecker checker = new InclusionChecker();
+
+        assertTrue(checker.check(endsInA, all).isIncluded());
+        assertTrue(checker.check(thirdFromEnd, all).isIncluded());
+        InclusionChecker.Result result = checker.check(all, endsInA);
+        assertFalse(result.isIncluded());
+        assertEquals("", result.getCounterexample());
+        assertFalse(checker.check(thirdFromEnd, endsInA).isIncluded());
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LanguageQueriesTest {
+
+    // The queries against simulate() on every word up to twice the number of states: a
+    // shortest accepted word is shorter than that, and the language is infinite exactly if
+    // some accepted word has a length between n and 2n - 1
+    private static void assertAgreesWithSimulate(Automaton automaton, String context) {
+        int n = automaton.getStateCount();
+        int maxLength = 2 * n - 1;
+        List<String> accepted = new ArrayList<>();
+        boolean longAccepted = false;
+        for (String word : Words.upTo("ab", maxLength)) {
+            if (automaton.simulate(word)) {
+                accepted.add(word);
+                longAccepted |= word.length() >= n;
+            }
+        }
+
+        assertEquals(accepted.isEmpty(), automaton.isLanguageEmpty(), context);
+        assertEquals(!longAccepted, automaton.isLanguageFinite(), context);
+        List<String> shortest = automaton.getShortestAcceptedWords(5);
+        List<String> enumerated = shortest.stream().filter(word -> word.length() <= maxLength).toList();
+        assertEquals(accepted.subList(0, Math.min(5, accepted.size())), enumerated, context);
+        for (String word : shortest) {
+            assertTrue(automaton.simulate(word), context + ", word \"" + word + "\"");
+        }
+    }
+
+    @Test
+    void agreesWithSimulateInBothModes() {
+        AutomatonGenerator generator = new AutomatonGenerator(13);
+        for (int i = 0; i < 200; i++) {
+            Automaton automaton = i % 3 == 0 ? generator.randomDfa(4, 2, 0.6, 0.3) : generator.randomNfa(4, 2, 2, 0.3);
+            automaton.setNFA(true);
+            assertAgreesWithSimulate(automaton, "automaton " + i + " as NEA");
+            // Nondeterministic automata in DEA mode: the first transition per symbol wins
+            automaton.setNFA(false);
+            assertAgreesWithSimulate(automaton, "automaton " + i + " as DEA");
+        }
+    }
+
+    @Test
+    void nondeterministicDfaListsOnlyWordsItAccepts() {
+        // q0 -a-> q1 is added before q0 -a-> q2, so in DEA mode "a" ends in q1 and is rejected
+        Automaton automaton = new Automaton();
+        State q0 = new State("q0", 0, 0);
+        State q1 = new State("q1", 100, 0);
+        State q2 = new State("q2", 200, 0);
+        automaton.addState(q0);
+        automaton.addState(q1);
+        automaton.addState(q2);
+        automaton.setInitialState(q0);
+        q2.setFinal(true);
+        automaton.addTransition(new Transition(q0, q1, "a"));
+        automaton.addTransition(new Transition(q0, q2, "a"));
+
+        assertFalse(automaton.simulate("a"));
+        assertTrue(automaton.isLanguageEmpty());
+        assertNull(automaton.getShortestAcceptedWord());
+
+        automaton.setNFA(true);
+        assertTrue(automaton.simulate("a"));
+        assertEquals("a", automaton.getShortestAcceptedWord());
+    }
+
+    @Test
+    void knownLanguages() {
+        Automaton thirdFromEnd = AutomatonGenerator.nthSymbolFromEnd(3);
+        assertFalse(thirdFromEnd.isLanguageFinite());
+        assertEquals(List.of("aaa", "aab", "aba", "abb", "aaaa"), thirdFromEnd.getShortestAcceptedWords(5));
+
+        Automaton finite = new RegexCompiler().compile("ab|ba|a");
+        assertTrue(finite.isLanguageFinite());
+        assertEquals(List.of("a", "ab", "ba"), finite.getShortestAcceptedWords(10));
+    }
+}
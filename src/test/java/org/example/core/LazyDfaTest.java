@@ -0,0 +1,84 @@
+package org.example.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyDfaTest {
+
+    @Test
+    void smallCacheAgreesWithNfaOnLongInputs() {
+        // 2^6 DEA states, far more than the cache holds
+        CompiledNfa nfa = CompiledNfa.compile(AutomatonGenerator.nthSymbolFromEnd(6));
+        AutomatonGenerator generator = new AutomatonGenerator(42);
+        List<String> symbols = List.of("a", "b");
+
+        for (int maxStates : new int[] {2, 3, 5, 16}) {
+            LazyDfa dfa = new LazyDfa(nfa, maxStates);
+            for (int i = 0; i < 200; i++) {
+                String word = generator.randomWord(symbols, 1 + i * 10);
+                assertEquals(nfa.accepts(word), dfa.accepts(word), "maxStates " + maxStates + ", word " + i);
+                assertTrue(dfa.getCachedStateCount() <= maxStates);
+            }
+            assertTrue(dfa.getFlushCount() > 0, "cache of " + maxStates + " states never flushed");
+        }
+    }
+
+    @Test
+    void sessionsRestartAfterFlush() {
+        CompiledNfa nfa = CompiledNfa.compile(AutomatonGenerator.nthSymbolFromEnd(5));
+        AutomatonGenerator generator = new AutomatonGenerator(7);
+        LazyDfa dfa = new LazyDfa(nfa, 2);
+
+        for (int i = 0; i < 50; i++) {
+            String word = generator.randomWord(List.of("a", "b"), 500);
+            AcceptanceSession session = dfa.newSession();
+            session.feed(word.substring(0, 250));
+            session.feed(word.substring(250));
+            assertEquals(nfa.accepts(word), session.isAccepting());
+        }
+    }
+
+    @Test
+    void automatonSessionsShareTheCachedDfa() {
+        Automaton automaton = AutomatonGenerator.nthSymbolFromEnd(3);
+        automaton.setNfaSimulation(Automaton.NfaSimulation.LAZY_DFA);
+        assertTrue(automaton.simulate("aabb"));
+        LazyDfa dfa = automaton.getLazyDfa();
+        int cached = dfa.getCachedStateCount();
+
+        AcceptanceSession session = automaton.newSession();
+        session.feed("aabb");
+        assertTrue(session.isAccepting());
+        assertSame(dfa, automaton.getLazyDfa());
+        // Every state on the way was built by simulate() already
+        assertEquals(cached, dfa.getCachedStateCount());
+    }
+
+    @Test
+    void tableSizeIsClampedForLargeAlphabets() {
+        Automaton automaton = new Automaton();
+        State q0 = new State("q0", 0, 0);
+        automaton.addState(q0);
+        automaton.setInitialState(q0);
+        q0.setFinal(true);
+        StringJoiner label = new StringJoiner(",");
+        for (int i = 0; i < 40_000; i++) {
+            label.add(String.valueOf((char) (0x1000 + i)));
+        }
+        automaton.addTransition(new Transition(q0, q0, label.toString()));
+
+        LazyDfa dfa = new LazyDfa(automaton.getCompiledNfa(), Integer.MAX_VALUE);
+        assertEquals((Integer.MAX_VALUE - 8) / 40_000, dfa.getMaxStates());
+        assertTrue(dfa.accepts("\u1000\u9c3f"));
+    }
+
+    @Test
+    void rejectsTooSmallCache() {
+        CompiledNfa nfa = CompiledNfa.compile(AutomatonGenerator.nthSymbolFromEnd(2));
+        assertThrows(IllegalArgumentException.class, () -> new LazyDfa(nfa, 1));
+    }
+}
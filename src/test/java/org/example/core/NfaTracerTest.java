@@ -0,0 +1,123 @@
+package org.example.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NfaTracerTest {
+
+    private static boolean contains(long[] set, int state) {
+        return set != null && (set[state >>> 6] & (1L << state)) != 0;
+    }
+
+    // Number of characters read before all runs block
+    private static int readablePrefix(CompiledNfa nfa, String input) {
+        long[] current = nfa.newStateSet();
+        long[] next = nfa.newStateSet();
+        nfa.copyInitialStates(current);
+        for (int i = 0; i < input.length(); i++) {
+            if (!nfa.step(current, nfa.getSymbolTable().idOf(input.charAt(i)), next)) {
+                return i;
+            }
+            long[] swap = current;
+            current = next;
+            next = swap;
+        }
+        return input.length();
+    }
+
+    private static void assertValidRun(CompiledNfa nfa, String input, int[] path, String context) {
+        assertEquals(readablePrefix(nfa, input) + 1, path.length, context);
+        long[] initial = nfa.newStateSet();
+        nfa.copyInitialStates(initial);
+        assertTrue(contains(initial, path[0]), context + ": run does not start in the initial closure");
+        for (int i = 0; i + 1 < path.length; i++) {
+            int symbol = nfa.getSymbolTable().idOf(input.charAt(i));
+            assertTrue(contains(nfa.getSuccessors(path[i], symbol), path[i + 1]), context + ": step " + i);
+        }
+        if (nfa.accepts(input)) {
+            assertTrue(nfa.isFinal(path[path.length - 1]), context + ": accepted input needs an accepting run");
+        }
+    }
+
+    @Test
+    void everyCheckpointIntervalGivesAValidRun() {
+        AutomatonGenerator generator = new AutomatonGenerator(3);
+        List<String> symbols = List.of("a", "b", "c");
+        for (int i = 0; i < 50; i++) {
+            CompiledNfa nfa = generator.randomNfa(8, 3, 2, 0.3).getCompiledNfa();
+            String input = generator.randomWord(symbols, 5 + i * 3);
+            for (int interval : new int[] {NfaTracer.AUTOMATIC, 1, 2, 3, 7, 64}) {
+                NfaTracer tracer = new NfaTracer(nfa);
+                tracer.setCheckpointInterval(interval);
+                assertValidRun(nfa, input, tracer.tracePath(input), "automaton " + i + ", interval " + interval);
+            }
+        }
+    }
+
+    @Test
+    void automaticIntervalCheckpointsLongInputs() {
+        // Longer than the frontiers AUTOMATIC keeps in memory, so it has to recompute segments
+        CompiledNfa nfa = AutomatonGenerator.nthSymbolFromEnd(3).getCompiledNfa();
+        String input = new AutomatonGenerator(9).randomWord(List.of("a", "b"), 5_000_000) + "abb";
+        int[] path = new NfaTracer(nfa).tracePath(input);
+        assertValidRun(nfa, input, path, "long input");
+        assertTrue(nfa.isFinal(path[path.length - 1]));
+    }
+
+    @Test
+    void blockedRunEndsAtTheLastReadableCharacter() {
+        Automaton automaton = AutomatonGenerator.containing("ab", 2);
+        CompiledNfa nfa = automaton.getCompiledNfa();
+        // 'c' is not in the alphabet: nothing after it can be read
+        String input = "aabacab";
+        for (int interval : new int[] {1, 2, 4}) {
+            NfaTracer tracer = new NfaTracer(nfa);
+            tracer.setCheckpointInterval(interval);
+            int[] path = tracer.tracePath(input);
+            assertEquals(5, path.length, "interval " + interval);
+            assertValidRun(nfa, input, path, "interval " + interval);
+        }
+    }
+
+    @Test
+    void runMayStartInTheEpsilonClosureOfTheInitialState() {
+        // q0 -ε-> q1 -a-> q2: the only run on "a" starts in q1
+        Automaton automaton = new Automaton();
+        automaton.setNFA(true);
+        State q0 = new State("q0", 0, 0);
+        State q1 = new State("q1", 100, 0);
+        State q2 = new State("q2", 200, 0);
+        automaton.addState(q0);
+        automaton.addState(q1);
+        automaton.addState(q2);
+        automaton.setInitialState(q0);
+        q2.setFinal(true);
+        automaton.addTransition(new Transition(q0, q1, Transition.EPSILON));
+        automaton.addTransition(new Transition(q1, q2, "a"));
+
+        CompiledNfa nfa = automaton.getCompiledNfa();
+        for (int interval : new int[] {NfaTracer.AUTOMATIC, 1, 2}) {
+            NfaTracer tracer = new NfaTracer(nfa);
+            tracer.setCheckpointInterval(interval);
+            List<State> run = tracer.trace("a");
+            assertEquals(List.of(q1, q2), run, "interval " + interval);
+        }
+        assertEquals(List.of(q1, q2), automaton.simulateSteps("a"));
+    }
+
+    @Test
+    void noInitialStateGivesAnEmptyRun() {
+        Automaton automaton = AutomatonGenerator.nthSymbolFromEnd(2);
+        automaton.setInitialState(null);
+        assertEquals(0, new NfaTracer(automaton.getCompiledNfa()).tracePath("ab").length);
+    }
+
+    @Test
+    void rejectsNegativeInterval() {
+        NfaTracer tracer = new NfaTracer(AutomatonGenerator.nthSymbolFromEnd(2).getCompiledNfa());
+        assertThrows(IllegalArgumentException.class, () -> tracer.setCheckpointInterval(-1));
+    }
+}
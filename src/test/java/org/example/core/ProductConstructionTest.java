@@ -0,0 +1,70 @@
+package org.example.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductConstructionTest {
+    private static final List<String> WORDS = Words.upTo("ab", 8);
+
+    private static void assertProduct(Automaton a, Automaton b, ProductConstruction.Operation operation,
+                                      Automaton product, String context) {
+        for (String word : WORDS) {
+            boolean left = a.simulate(word);
+            boolean right = b.simulate(word);
+            boolean expected = switch (operation) {
+                case INTERSECTION -> left && right;
+                case UNION -> left || right;
+                case DIFFERENCE -> left && !right;
+                case SYMMETRIC_DIFFERENCE -> left != right;
+            };
+            assertEquals(expected, product.simulate(word), context + ", word \"" + word + "\"");
+        }
+    }
+
+    @Test
+    void agreesWithBruteForceOnRandomAutomata() {
+        AutomatonGenerator generator = new AutomatonGenerator(23);
+        for (int i = 0; i < 60; i++) {
+            Automaton a = generator.randomNfa(4, 2, 2, 0.3);
+            Automaton b = i % 2 == 0 ? generator.randomDfa(4, 2, 0.7, 0.5) : generator.randomNfa(3, 2, 2, 0.5);
+            for (boolean minimize : new boolean[] {false, true}) {
+                ProductConstruction construction = new ProductConstruction();
+                construction.setMinimize(minimize);
+                for (ProductConstruction.Operation operation : ProductConstruction.Operation.values()) {
+                    Automaton product = construction.product(a, b, operation);
+                    assertFalse(product.isNFA());
+                    assertProduct(a, b, operation, product, "pair " + i + " " + operation + " minimize " + minimize);
+                }
+            }
+        }
+    }
+
+    @Test
+    void operandsWithDifferentAlphabets() {
+        Automaton a = new RegexCompiler().compile("a*");
+        Automaton b = new RegexCompiler().compile("(a|b)*b");
+        ProductConstruction construction = new ProductConstruction();
+        assertProduct(a, b, ProductConstruction.Operation.UNION, construction.union(a, b), "union");
+        assertProduct(a, b, ProductConstruction.Operation.DIFFERENCE, construction.difference(a, b), "difference");
+        assertTrue(construction.intersection(a, b).isLanguageEmpty());
+    }
+
+    @Test
+    void minimizedProductIsEquivalentAndNotLarger() {
+        Automaton a = AutomatonGenerator.countModulo(4);
+        Automaton b = AutomatonGenerator.countModulo(6);
+        ProductConstruction plain = new ProductConstruction();
+        ProductConstruction minimizing = new ProductConstruction();
+        minimizing.setMinimize(true);
+
+        Automaton full = plain.intersection(a, b);
+        Automaton minimal = minimizing.intersection(a, b);
+        assertTrue(new EquivalenceChecker().check(full, minimal).isEquivalent());
+        // Divisible by 4 and by 6 is divisible by 12
+        assertEquals(12, minimal.getStateCount());
+        assertTrue(minimal.getStateCount() <= full.getStateCount());
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegexCompilerTest {
+    private static final String SYMBOLS = "abc";
+
+    private static String randomPattern(Random random, int depth) {
+        int choice = depth == 0 ? random.nextInt(2) : random.nextInt(8);
+        return switch (choice) {
+            case 0 -> String.valueOf(SYMBOLS.charAt(random.nextInt(SYMBOLS.length())));
+            case 1 -> random.nextBoolean() ? "[ab]" : "[a-c]";
+            case 2, 3 -> randomPattern(random, depth - 1) + randomPattern(random, depth - 1);
+            case 4 -> "(" + randomPattern(random, depth - 1) + "|" + (random.nextInt(4) == 0 ? "" : randomPattern(random, depth - 1)) + ")";
+            case 5 -> "(" + randomPattern(random, depth - 1) + ")*";
+            case 6 -> "(" + randomPattern(random, depth - 1) + ")+";
+            default -> "(" + randomPattern(random, depth - 1) + ")?";
+        };
+    }
+
+    private static void assertSameLanguage(String pattern, List<String> words) {
+        Automaton automaton = new RegexCompiler().compile(pattern);
+        Pattern expected = Pattern.compile(pattern);
+        for (String word : words) {
+            assertEquals(expected.matcher(word).matches(), automaton.simulate(word),
+                    "pattern \"" + pattern + "\", word \"" + word + "\"");
+        }
+    }
+
+    @Test
+    void agreesWithJavaRegex() {
+        List<String> words = Words.upTo(SYMBOLS, 6);
+        for (String pattern : List.of("a", "ab|c", "(a|b)*abb", "a+b?c*", "[a-c]*c", "(a|)b", "()", "",
+                "((a|b)(b|c))*", "(a*)*", "\\(", "[ab]+|c")) {
+            List<String> candidates = new ArrayList<>(words);
+            candidates.add("(");
+            assertSameLanguage(pattern, candidates);
+        }
+    }
+
+    @Test
+    void agreesWithJavaRegexOnRandomPatterns() {
+        Random random = new Random(11);
+        List<String> words = Words.upTo(SYMBOLS, 5);
+        for (int i = 0; i < 200; i++) {
+            assertSameLanguage(randomPattern(random, 4), words);
+        }
+    }
+
+    @Test
+    void deeplyNestedPatternDoesNotOverflow() {
+        String pattern = "(".repeat(20_000) + "a" + ")".repeat(20_000);
+        Automaton automaton = new RegexCompiler().compile(pattern);
+        assertTrue(automaton.simulate("a"));
+        assertFalse(automaton.simulate("aa"));
+    }
+
+    @Test
+    void compilingIntoAnAutomatonReplacesItAndMarksItAsNfa() {
+        Automaton target = AutomatonGenerator.countModulo(3);
+        assertFalse(target.isNFA());
+
+        new RegexCompiler().compile("ab*", target);
+
+        assertTrue(target.isNFA());
+        assertTrue(target.simulate("abbb"));
+        assertFalse(target.simulate("b"));
+        assertFalse(target.simulate("aa"));
+    }
+
+    @Test
+    void rangeUpToTheLastCharacter() {
+        Automaton automaton = new RegexCompiler().compile("[\ufff0-\uffff]");
+        assertTrue(automaton.simulate("\uffff"));
+        assertTrue(automaton.simulate("\ufff0"));
+        assertFalse(automaton.simulate("\uffef"));
+    }
+
+    @Test
+    void rejectsSymbolsThatCannotBeLabels() {
+        RegexCompiler compiler = new RegexCompiler();
+        for (String pattern : List.of("a,b", "[a,b]", "[+--]", "a b", "[ a]", "\\ ", "ε", "[^a]",
+                "(a", "a)", "*a", "[ab", "[]", "[b-a]", "a\\")) {
+            assertThrows(IllegalArgumentException.class, () -> compiler.compile(pattern), pattern);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Brute-force oracles for the tests: every word over the symbols up to a length
+final class Words {
+    private Words() {
+    }
+
+    // Shortest first, so the first word that distinguishes two automata is a shortest one
+    static List<String> upTo(String symbols, int maxLength) {
+        List<String> result = new ArrayList<>();
+        result.add("");
+        for (int start = 0; start < result.size(); start++) {
+            String word = result.get(start);
+            if (word.length() < maxLength) {
+                for (char c : symbols.toCharArray()) {
+                    result.add(word + c);
+                }
+            }
+        }
+        return result;
+    }
+}